@@ -0,0 +1,90 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification;
+
+import android.content.Context;
+import android.service.notification.StatusBarNotification;
+import android.util.SparseArray;
+
+import androidx.core.app.NotificationManagerCompat;
+
+import java.util.List;
+
+import de.appplant.cordova.plugin.localnotification.util.IntArraySet;
+
+/**
+ * Snapshot of the notifications, which are currently shown in the status bar.
+ * Getting the active notifications is an IPC call to the system, so an operation
+ * should load them once and share the snapshot, instead of asking the system
+ * for every notification. The snapshot is not updated, when notifications are
+ * shown or cleared afterwards.
+ */
+public final class ActiveNotifications {
+
+    // Active notifications by their id
+    private final SparseArray<StatusBarNotification> notifications;
+
+    private final IntArraySet ids;
+
+    private ActiveNotifications(List<StatusBarNotification> statusBarNotifications) {
+        this.notifications = new SparseArray<StatusBarNotification>(statusBarNotifications.size());
+        this.ids = new IntArraySet(statusBarNotifications.size());
+
+        for (StatusBarNotification statusBarNotification : statusBarNotifications) {
+            notifications.put(statusBarNotification.getId(), statusBarNotification);
+            ids.add(statusBarNotification.getId());
+        }
+    }
+
+    /**
+     * Loads the active notifications of the app from the system.
+     */
+    public static ActiveNotifications load(Context context) {
+        return new ActiveNotifications(NotificationManagerCompat.from(context).getActiveNotifications());
+    }
+
+    /**
+     * If a notification with the id is shown in the status bar.
+     */
+    public boolean contains(int notificationId) {
+        return ids.contains(notificationId);
+    }
+
+    /**
+     * Gets the active notification with the id.
+     * @return null if no notification with the id is shown in the status bar.
+     */
+    public StatusBarNotification get(int notificationId) {
+        return notifications.get(notificationId);
+    }
+
+    /**
+     * Ids of the active notifications, sorted ascending.
+     */
+    public int[] getIds() {
+        return ids.toArray();
+    }
+
+    public int size() {
+        return ids.size();
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.appplant.cordova.plugin.localnotification.receiver.TriggerReceiver;
+import de.appplant.cordova.plugin.localnotification.store.NotificationStore;
+import de.appplant.cordova.plugin.localnotification.store.QueuedAlarm;
+import de.appplant.cordova.plugin.localnotification.util.BackgroundExecutor;
+import de.appplant.cordova.plugin.localnotification.util.IntArraySet;
+
+/**
+ * Queue of pending triggers for notifications with the option androidAlarmQueue.
+ * The system allows only 500 alarms per app, so instead of registering one alarm
+ * per notification, the triggers are persisted in the {@link NotificationStore} and
+ * only the earliest trigger of each alarm type is registered in the AlarmManager.
+ * Triggers with overlapping delivery windows are grouped into one alarm.
+ * When such an alarm fires, the {@link TriggerReceiver} drains all due triggers
+ * and the alarm is set to the next trigger of the queue.
+ */
+public final class AlarmQueue {
+
+    private static final String TAG = "AlarmQueue";
+
+    // Intent action of the shared alarms, followed by the alarm type and allowWhileIdle
+    // like "NOTIFICATION_ALARM_QUEUE-0-1"
+    public static final String INTENT_ACTION_PREFIX = "NOTIFICATION_ALARM_QUEUE";
+
+    // Registered alarms by their intent action.
+    // Used to skip setting an alarm, which is already registered.
+    private static final Map<String, QueuedAlarm> armedAlarms = new HashMap<String, QueuedAlarm>();
+
+    // Delay of a trigger, whose processing failed, see drain
+    private static final long RETRY_DELAY_MILLIS = 15 * 60 * 1000;
+
+    // Ids of the triggers, which are processed by drain. Also the lock
+    // for selecting and removing due triggers of the queue.
+    private static final IntArraySet drainingIds = new IntArraySet();
+
+    // Arming is deferred while greater than 0, see beginBatch
+    private static int batchDepth = 0;
+
+    private AlarmQueue() {}
+
+    /**
+     * If the intent was sent by an alarm of the queue.
+     */
+    public static boolean isQueueIntent(Intent intent) {
+        return intent.getAction() != null && intent.getAction().startsWith(INTENT_ACTION_PREFIX);
+    }
+
+    /**
+     * Adds the current trigger of a notification to the queue and
+     * registers the alarm, if the trigger is earlier than the armed one.
+     * The notification has to be stored before.
+     */
+    static void enqueue(Context context, Notification notification) {
+        Log.d(TAG, "Enqueue notification" +
+            ", notificationId=" + notification.getId() +
+            ", triggerDate=" + notification.getTriggerHandler().getTriggerDate());
+
+        Manager.getStore(context).putQueuedAlarm(notification.toQueuedAlarm());
+        arm(context);
+    }
+
+    /**
+     * Adds the current triggers of multiple notifications to the queue
+     * in one transaction and registers the alarms once.
+     */
+    static void enqueueAll(Context context, List<Notification> notifications) {
+        if (notifications.isEmpty()) return;
+
+        List<QueuedAlarm> queuedAlarms = new ArrayList<QueuedAlarm>(notifications.size());
+
+        for (Notification notification : notifications) {
+            queuedAlarms.add(notification.toQueuedAlarm());
+        }
+
+        Manager.getStore(context).putQueuedAlarms(queuedAlarms);
+        Log.d(TAG, "Enqueued notifications, count=" + queuedAlarms.size());
+
+        arm(context);
+    }
+
+    /**
+     * Shows all notifications, which are due, schedules their next occurrence
+     * and registers the alarms for the next triggers in the queue.
+     * The notifications are independent of each other and processed in parallel.
+     * A trigger is only removed from the queue, after its notification was processed.
+     * The triggers, which are not started by the deadline, stay due in the queue,
+     * so the alarm goes off again right away. Failed triggers are retried after
+     * {@link #RETRY_DELAY_MILLIS}.
+     * @param deadline Uptime in milliseconds, after which no more notifications are processed.
+     */
+    public static void drain(Context context, long deadline) {
+        long now = System.currentTimeMillis();
+        List<Runnable> tasks = new ArrayList<Runnable>();
+
+        // Drains of different alarms could see the same due triggers, so each
+        // trigger is claimed, until its notification is processed
+        synchronized (drainingIds) {
+            int[] notificationIds = Manager.getStore(context).getDueQueuedAlarms(now);
+            Log.d(TAG, "Drain queue, due=" + notificationIds.length);
+
+            for (int notificationId : notificationIds) {
+                // Processed by another drain
+                if (!drainingIds.add(notificationId)) continue;
+
+                tasks.add(new DrainTask(context, notificationId, now));
+            }
+        }
+
+        beginBatch();
+
+        try {
+            List<Runnable> notStartedTasks = BackgroundExecutor.runParallel(tasks, deadline);
+
+            if (!notStartedTasks.isEmpty()) {
+                Log.w(TAG, "Deadline reached, triggers stay due, count=" + notStartedTasks.size());
+
+                // Can be claimed by the next drain
+                synchronized (drainingIds) {
+                    for (Runnable task : notStartedTasks) {
+                        drainingIds.remove(((DrainTask) task).notificationId);
+                    }
+                }
+            }
+        } finally {
+            // The fired alarm is not registered anymore
+            invalidate();
+
+            endBatch(context);
+        }
+    }
+
+    /**
+     * Shows a due notification of the queue and schedules its next occurrence.
+     * Removes the trigger from the queue afterwards or postpones it, if processing failed.
+     * @param now Date in milliseconds, up to which the triggers are due.
+     */
+    private static void drainTrigger(Context context, int notificationId, long now) {
+        boolean processed = false;
+
+        try {
+            Notification notification = Notification.getFromStore(context, notificationId);
+
+            if (notification != null) {
+                notification.show(false);
+
+                // The notification stays in the store, if there is no next trigger,
+                // see TriggerReceiver. Otherwise the next trigger replaces the due one.
+                notification.scheduleNext();
+            }
+
+            processed = true;
+        } catch (RuntimeException exception) {
+            Log.e(TAG, "Processing trigger failed, retrying later" +
+                ", notificationId=" + notificationId, exception);
+        } finally {
+            synchronized (drainingIds) {
+                if (processed) {
+                    Manager.getStore(context).removeDueQueuedAlarm(notificationId, now);
+                } else {
+                    Manager.getStore(context).postponeQueuedAlarm(
+                        notificationId, System.currentTimeMillis() + RETRY_DELAY_MILLIS);
+                }
+
+                drainingIds.remove(notificationId);
+            }
+        }
+    }
+
+    /**
+     * Defers the registering of alarms, until {@link #endBatch(Context)} is called.
+     * Used when a lot of notifications are enqueued one by one, so the
+     * alarms are only registered once. Calls can be nested.
+     */
+    public static synchronized void beginBatch() {
+        batchDepth++;
+    }
+
+    /**
+     * Ends a batch started by {@link #beginBatch()} and registers the
+     * alarms, if it was the outermost batch.
+     */
+    public static void endBatch(Context context) {
+        synchronized (AlarmQueue.class) {
+            batchDepth--;
+            if (batchDepth > 0) return;
+        }
+
+        arm(context);
+    }
+
+    /**
+     * Forgets which alarms are registered, so the next arming registers all alarms again.
+     * Has to be called when the system removed the alarms or the permission
+     * to schedule exact alarms changed.
+     */
+    public static synchronized void invalidate() {
+        armedAlarms.clear();
+    }
+
+    /**
+     * Registers one alarm for the earliest triggers of each alarm type in the queue,
+     * see {@link NotificationStore#getNextQueuedAlarms()},
+     * and cancels alarms of types, which have no queued triggers anymore.
+     */
+    static synchronized void arm(Context context) {
+        if (batchDepth > 0) return;
+
+        List<QueuedAlarm> nextAlarms = Manager.getStore(context).getNextQueuedAlarms();
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        boolean canScheduleExactAlarms = Manager.canScheduleExactAlarms(context);
+        Set<String> intentActions = new HashSet<String>(nextAlarms.size());
+
+        for (QueuedAlarm nextAlarm : nextAlarms) {
+            String intentAction = getIntentAction(nextAlarm.getAlarmType(), nextAlarm.isAllowWhileIdle());
+            intentActions.add(intentAction);
+
+            QueuedAlarm armedAlarm = armedAlarms.get(intentAction);
+
+            // Alarm is already registered for this date and window
+            if (armedAlarm != null && armedAlarm.getTriggerDate() == nextAlarm.getTriggerDate() &&
+                armedAlarm.getDeliveryWindow() == nextAlarm.getDeliveryWindow()) continue;
+
+            if (setAlarm(context, alarmManager, intentAction, nextAlarm, canScheduleExactAlarms)) {
+                armedAlarms.put(intentAction, nextAlarm);
+            }
+        }
+
+        // Cancel the alarms of types, which have no queued triggers anymore
+        Iterator<String> iterator = armedAlarms.keySet().iterator();
+
+        while (iterator.hasNext()) {
+            String intentAction = iterator.next();
+            if (intentActions.contains(intentAction)) continue;
+
+            PendingIntent pendingIntent = PendingIntent.getBroadcast(
+                context, 0, getIntent(context, intentAction),
+                PendingIntent.FLAG_IMMUTABLE | PendingIntent.FLAG_NO_CREATE);
+
+            if (pendingIntent != null) alarmManager.cancel(pendingIntent);
+
+            Log.d(TAG, "Canceled alarm, intentAction=" + intentAction);
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Registers the shared alarm for an alarm type.
+     * @return true if the alarm was registered, false if an error occured.
+     */
+    private static boolean setAlarm(Context context, AlarmManager alarmManager, String intentAction,
+        QueuedAlarm queuedAlarm, boolean canScheduleExactAlarms) {
+        Log.d(TAG, "Set alarm" +
+            ", intentAction=" + intentAction +
+            ", canScheduleExactAlarms=" + canScheduleExactAlarms +
+            ", triggerDate=" + new Date(queuedAlarm.getTriggerDate()) +
+            ", deliveryWindow=" + queuedAlarm.getDeliveryWindow());
+
+        // AlarmManager.set: If there is already an alarm scheduled for the same IntentSender,
+        // that previous alarm will first be canceled.
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(
+            context, 0, getIntent(context, intentAction), PendingIntent.FLAG_IMMUTABLE);
+
+        try {
+            // Has no window, there is no AlarmManager method to set a window,
+            // which is allowed while idle
+            if (queuedAlarm.isAllowWhileIdle()) {
+                if (canScheduleExactAlarms) {
+                    alarmManager.setExactAndAllowWhileIdle(
+                        queuedAlarm.getAlarmType(), queuedAlarm.getTriggerDate(), pendingIntent);
+                } else {
+                    alarmManager.setAndAllowWhileIdle(
+                        queuedAlarm.getAlarmType(), queuedAlarm.getTriggerDate(), pendingIntent);
+                }
+            } else if (queuedAlarm.getDeliveryWindow() > 0) {
+                // The system can deliver it anywhere in the window and batch it with other alarms.
+                // Needs no permission for exact alarms.
+                alarmManager.setWindow(
+                    queuedAlarm.getAlarmType(), queuedAlarm.getTriggerDate(),
+                    queuedAlarm.getDeliveryWindow(), pendingIntent);
+            } else {
+                if (canScheduleExactAlarms) {
+                    alarmManager.setExact(
+                        queuedAlarm.getAlarmType(), queuedAlarm.getTriggerDate(), pendingIntent);
+                } else {
+                    alarmManager.set(
+                        queuedAlarm.getAlarmType(), queuedAlarm.getTriggerDate(), pendingIntent);
+                }
+            }
+
+            return true;
+        } catch (Exception exception) {
+            Log.e(TAG, "Exception occurred during setting alarm, intentAction=" + intentAction, exception);
+            return false;
+        }
+    }
+
+    private static String getIntentAction(int alarmType, boolean allowWhileIdle) {
+        return INTENT_ACTION_PREFIX + "-" + alarmType + "-" + (allowWhileIdle ? 1 : 0);
+    }
+
+    /**
+     * The intent has to be build with the same context, class and action
+     * for setting and canceling the alarm.
+     */
+    private static Intent getIntent(Context context, String intentAction) {
+        return new Intent(context, TriggerReceiver.class).setAction(intentAction);
+    }
+
+    /**
+     * Task of {@link #drain(Context, long)} for a due trigger.
+     */
+    private static final class DrainTask implements Runnable {
+
+        private final Context context;
+
+        private final int notificationId;
+
+        // Date in milliseconds, up to which the triggers are due
+        private final long now;
+
+        DrainTask(Context context, int notificationId, long now) {
+            this.context = context;
+            this.notificationId = notificationId;
+            this.now = now;
+        }
+
+        public void run() {
+            drainTrigger(context, notificationId, now);
+        }
+    }
+}
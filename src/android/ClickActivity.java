@@ -47,13 +47,16 @@ public class ClickActivity extends Activity {
         int notificationId = getIntent().getExtras().getInt(Notification.EXTRA_ID);
         // Get the clicked action id, if an action was clicked, otherwise it is null
         String actionId = getIntent().getStringExtra(Action.EXTRA_ID);
-        Notification notification = Notification.getFromSharedPreferences(getApplicationContext(), notificationId);
+        Notification notification = Notification.getFromStore(getApplicationContext(), notificationId);
         
         Log.d(TAG, "Notification clicked, id=" + notificationId + ", actionId=" + actionId);
 
         // Check if the notification data is available
         // Normally it should be available, but in some cases it isn't
         if (notification != null) {
+            // The events are fired for the clicked occurrence
+            notification.setEventOccurrence(getIntent().getIntExtra(Notification.EXTRA_OCCURRENCE, 0));
+
             // Handle action click
             if (actionId != null) {
                 notification.handleActionClick(getIntent(), actionId);
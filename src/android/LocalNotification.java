@@ -65,6 +65,7 @@ import de.appplant.cordova.plugin.localnotification.Options;
 import de.appplant.cordova.plugin.localnotification.action.ActionGroup;
 import de.appplant.cordova.plugin.localnotification.util.AssetUtil;
 import de.appplant.cordova.plugin.localnotification.util.CallbackContextUtil;
+import de.appplant.cordova.plugin.localnotification.util.RawJSONArray;
 
 import com.google.common.util.concurrent.ListenableFuture;
 
@@ -175,6 +176,20 @@ public class LocalNotification extends CordovaPlugin {
                     cancel(args, callbackContext);
                 } else if (action.equals("cancelAll")) {
                     cancelAll(callbackContext);
+                } else if (action.equals("cancelByChannel")) {
+                    cancelByChannel(args, callbackContext);
+                } else if (action.equals("cancelByGroup")) {
+                    cancelByGroup(args, callbackContext);
+                } else if (action.equals("clearByGroup")) {
+                    clearByGroup(args, callbackContext);
+                } else if (action.equals("getByGroup")) {
+                    getByGroup(args, callbackContext);
+                } else if (action.equals("getScheduledBetween")) {
+                    getScheduledBetween(args, callbackContext);
+                } else if (action.equals("getNextDue")) {
+                    getNextDue(args, callbackContext);
+                } else if (action.equals("getOccurrences")) {
+                    getOccurrences(args, callbackContext);
                 } else if (action.equals("clear")) {
                     clear(args, callbackContext);
                 } else if (action.equals("clearAll")) {
@@ -324,11 +339,15 @@ public class LocalNotification extends CordovaPlugin {
      * @param optionsJSONList The notifications to schedule.
      */
     private void schedule(JSONArray optionsJSONList, CallbackContext callbackContext) {
+        List<Notification> notifications = new ArrayList<Notification>(optionsJSONList.length());
+
         for (int index = 0; index < optionsJSONList.length(); index++) {
-            Notification notification = new Notification(getContext(), optionsJSONList.optJSONObject(index));
-            if (notification.scheduleNext()) fireEvent("add", notification);
+            notifications.add(new Notification(getContext(), optionsJSONList.optJSONObject(index)));
         }
 
+        // Schedule all notifications in one batch and inform the WebView with one call
+        fireEvents("add", getManager().schedule(notifications));
+
         hasPermission(callbackContext);
     }    
     
@@ -379,9 +398,16 @@ public class LocalNotification extends CordovaPlugin {
      * Cancel multiple local notifications.
      */
     private void cancel(JSONArray args, CallbackContext callbackContext) {
-        for (int argsIndex = 0; argsIndex < args.length(); argsIndex++) {
-            Notification notification = Notification.getFromSharedPreferences(getContext(), args.optInt(argsIndex, 0));
-            if (notification != null) notification.cancel();
+        // Register the alarms of the queue only once
+        AlarmQueue.beginBatch();
+
+        try {
+            for (int argsIndex = 0; argsIndex < args.length(); argsIndex++) {
+                Notification notification = Notification.getFromStore(getContext(), args.optInt(argsIndex, 0));
+                if (notification != null) notification.cancel();
+            }
+        } finally {
+            AlarmQueue.endBatch(getContext());
         }
 
         callbackContext.success();
@@ -396,14 +422,37 @@ public class LocalNotification extends CordovaPlugin {
         callbackContext.success();
     }
 
+    /**
+     * Cancel all notifications of an Android channel.
+     * @param args Id of the channel.
+     */
+    private void cancelByChannel(JSONArray args, CallbackContext callbackContext) {
+        callbackContext.success(getManager().cancelByChannel(args.optString(0)));
+    }
+
+    /**
+     * Cancel all notifications of a group.
+     * @param args Name of the group.
+     */
+    private void cancelByGroup(JSONArray args, CallbackContext callbackContext) {
+        callbackContext.success(getManager().cancelByGroup(args.optString(0)));
+    }
+
     /**
      * Clear multiple local notifications without canceling them.
      * @param args Set of local notification IDs.
      */
     private void clear(JSONArray args, CallbackContext callbackContext) {
-        for (int argsIndex = 0; argsIndex < args.length(); argsIndex++) {
-            Notification notification = Notification.getFromSharedPreferences(getContext(), args.optInt(argsIndex, 0));
-            if (notification != null) notification.clear();
+        // Register the alarms of the queue only once
+        AlarmQueue.beginBatch();
+
+        try {
+            for (int argsIndex = 0; argsIndex < args.length(); argsIndex++) {
+                Notification notification = Notification.getFromStore(getContext(), args.optInt(argsIndex, 0));
+                if (notification != null) notification.clear();
+            }
+        } finally {
+            AlarmQueue.endBatch(getContext());
         }
 
         callbackContext.success();
@@ -418,11 +467,62 @@ public class LocalNotification extends CordovaPlugin {
         callbackContext.success();
     }
 
+    /**
+     * Clear all triggered notifications of a group without canceling them.
+     * @param args Name of the group.
+     */
+    private void clearByGroup(JSONArray args, CallbackContext callbackContext) {
+        callbackContext.success(getManager().clearByGroup(args.optString(0)));
+    }
+
+    /**
+     * Options of all notifications of a group.
+     * @param args Name of the group.
+     */
+    private void getByGroup(JSONArray args, CallbackContext callbackContext) {
+        callbackContext.success(toJSONArray(getManager().getOptionsJSONByGroup(args.optString(0))));
+    }
+
+    /**
+     * Options of the notifications, which trigger next in a time range, ordered by their trigger date.
+     * @param args From and to date in milliseconds and the maximum number of notifications, 0 for no limit.
+     */
+    private void getScheduledBetween(JSONArray args, CallbackContext callbackContext) {
+        callbackContext.success(toJSONArray(getManager().getOptionsJSONByTriggerDate(
+            args.optLong(0), args.optLong(1, Long.MAX_VALUE), args.optInt(2))));
+    }
+
+    /**
+     * Options of the next notifications, which will trigger, ordered by their trigger date.
+     * @param args Maximum number of notifications.
+     */
+    private void getNextDue(JSONArray args, CallbackContext callbackContext) {
+        callbackContext.success(toJSONArray(getManager().getOptionsJSONByTriggerDate(
+            System.currentTimeMillis(), Long.MAX_VALUE, args.optInt(0, 1))));
+    }
+
+    /**
+     * Next trigger dates of a notification in milliseconds, starting with the current one.
+     * @param args Notification id and maximum number of trigger dates.
+     */
+    private void getOccurrences(JSONArray args, CallbackContext callbackContext) {
+        Notification notification = Notification.getFromStore(getContext(), args.optInt(0));
+        JSONArray occurrences = new JSONArray();
+
+        if (notification != null) {
+            for (long occurrence : notification.getOccurrences(args.optInt(1, 1))) {
+                occurrences.put(occurrence);
+            }
+        }
+
+        callbackContext.success(occurrences);
+    }
+
     /**
      * Get the type of the notification (unknown, scheduled, triggered).
      */
     private void type(JSONArray args, CallbackContext callbackContext) {
-        Notification notification = Notification.getFromSharedPreferences(getContext(), args.optInt(0));
+        Notification notification = Notification.getFromStore(getContext(), args.optInt(0));
 
         if (notification == null) {
             callbackContext.success("unknown");
@@ -473,7 +573,7 @@ public class LocalNotification extends CordovaPlugin {
      * Sends options from a notification to WebView
      */
     private void notification(JSONArray args, CallbackContext callbackContext) {
-        Notification notification = Notification.getFromSharedPreferences(getContext(), args.optInt(0));
+        Notification notification = Notification.getFromStore(getContext(), args.optInt(0));
 
         if (notification != null) {
             callbackContext.success(notification.getOptions().getJSON());
@@ -488,31 +588,43 @@ public class LocalNotification extends CordovaPlugin {
     private void notifications(JSONArray args, CallbackContext callbackContext) {
         int type = args.optInt(0);
         JSONArray ids = args.optJSONArray(1);
-        List<Notification> notifications = new ArrayList<Notification>();
+        List<String> options;
 
         switch (type) {
             case 0:
-                notifications = getManager().getNotificationsFromSharedPreferences();
+                options = getManager().getOptionsJSONByType(Notification.Type.ALL);
                 break;
             case 1:
-                notifications = getManager().getByType(SCHEDULED);
+                options = getManager().getOptionsJSONByType(SCHEDULED);
                 break;
             case 2:
-                notifications = getManager().getByType(TRIGGERED);
+                options = getManager().getOptionsJSONByType(TRIGGERED);
                 break;
             case 3:
-                notifications = getManager().getNotificationsFromSharedPreferences(toList(ids));
+                options = getManager().getOptionsJSON(toList(ids));
+                break;
+            default:
+                options = new ArrayList<String>();
                 break;
         }
 
-        ArrayList<JSONObject> options = new ArrayList<JSONObject>();
+        callbackContext.success(toJSONArray(options));
+    }
 
-        for (Notification notification : notifications) {
-            options.add(notification.getOptions().getJSON());
+    /**
+     * Passes the options as JSON strings to the WebView without parsing them again.
+     * @param options Options as JSON strings, see {@link Manager#getOptionsJSON(List)}.
+     */
+    private static JSONArray toJSONArray(List<String> options) {
+        RawJSONArray optionsJSON = new RawJSONArray();
+
+        for (String optionsJSONString : options) {
+            optionsJSON.addRaw(optionsJSONString);
         }
 
-        callbackContext.success(new JSONArray(options));
+        return optionsJSON;
     }
+
     /**
      * Open the Android Notification settings for current app.
      */
@@ -654,30 +766,68 @@ public class LocalNotification extends CordovaPlugin {
      * @param eventData Event object with additional data.
      */
     public static void fireEvent(String event, Notification notification, JSONObject eventData) {
+        sendJavascript(getEventJavascript(event, notification, eventData, isInForeground()));
+    }
+
+    /**
+     * Fire given event on JS side for multiple notifications. The events
+     * are passed with one call to the WebView.
+     *
+     * @param event The event name.
+     * @param notifications The notifications to fire the event for.
+     */
+    public static void fireEvents(String event, List<Notification> notifications) {
+        if (notifications.isEmpty()) return;
+
+        StringBuilder js = new StringBuilder();
+        // Same for all events
+        boolean foreground = isInForeground();
+
+        for (Notification notification : notifications) {
+            js.append(getEventJavascript(event, notification, null, foreground)).append(";");
+        }
+
+        sendJavascript(js.toString());
+    }
+
+    /**
+     * Builds the JS code to fire an event.
+     *
+     * @param event The event name.
+     * @param notification Optional notification to pass with.
+     * @param eventData Event object with additional data.
+     * @param foreground If the app is running in foreground.
+     */
+    private static String getEventJavascript(String event, Notification notification, JSONObject eventData, boolean foreground) {
         if (eventData == null) eventData = new JSONObject();
 
         try {
             eventData.put("event", event);
-            eventData.put("foreground", isInForeground());
+            eventData.put("foreground", foreground);
             eventData.put("queued", !deviceready);
             // Set notification id
             if (notification != null) eventData.put("notification", notification.getId());
+            // Occurrence of a repeating notification, the options contain its content
+            if (notification != null) eventData.put("occurrence", notification.getEventOccurrence());
         } catch (JSONException exception) {
             exception.printStackTrace();
         }
 
-        if (launchDetails == null && !deviceready && notification != null) {
-            launchDetails = new Pair<Integer, String>(notification.getId(), event);
+        // Events can be fired in parallel by the TriggerReceiver
+        synchronized (LocalNotification.class) {
+            if (launchDetails == null && !deviceready && notification != null) {
+                launchDetails = new Pair<Integer, String>(notification.getId(), event);
+            }
         }
 
-        sendJavascript(String.format(
+        return String.format(
             "cordova.plugins.notification.local.fireEvent('%s', %s)",
             event,
             // params
             // notification
-            (notification != null ? notification.getOptions().toString() + ", " : "")
+            (notification != null ? notification.getEventOptions().toString() + ", " : "")
             // event data
-            + eventData.toString()));
+            + eventData.toString());
     }
 
     /**
@@ -36,22 +36,38 @@ import android.media.AudioAttributes;
 import android.net.Uri;
 import android.util.Log;
 import android.os.PowerManager;
+import android.os.SystemClock;
 
 import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static android.os.Build.VERSION.SDK_INT;
 import static android.os.Build.VERSION_CODES.O;
 import static android.os.Build.VERSION_CODES.P;
 import static android.os.Build.VERSION_CODES.S;
 import static de.appplant.cordova.plugin.localnotification.Notification.Type.TRIGGERED;
+import de.appplant.cordova.plugin.localnotification.receiver.RestoreReceiver;
 import de.appplant.cordova.plugin.localnotification.util.AssetUtil;
+import de.appplant.cordova.plugin.localnotification.util.BackgroundExecutor;
+import de.appplant.cordova.plugin.localnotification.store.NotificationRecord;
+import de.appplant.cordova.plugin.localnotification.store.NotificationState;
+import de.appplant.cordova.plugin.localnotification.store.NotificationStore;
+import de.appplant.cordova.plugin.localnotification.store.SQLiteNotificationStore;
+import de.appplant.cordova.plugin.localnotification.util.IntArraySet;
 
 /**
  * Central way to access all or single local notifications set by specific
@@ -68,6 +84,40 @@ public final class Manager {
 
     private static final Random randomGenerator = new Random();
 
+    // Storage for notifications and action groups, see getStore
+    private static NotificationStore store = null;
+
+    // Process-wide index of the stored notification ids. Loaded once from the
+    // store and kept in sync by Notification when storing or removing
+    // notifications, so the store has not to be queried on every call.
+    private static IntArraySet notificationIdIndex = null;
+
+    // Lock for notificationIdIndex
+    private static final Object notificationIdIndexLock = new Object();
+
+    // Key of the store meta value, which holds the plugin version
+    // all stored options were converted to
+    public static final String META_OPTIONS_VERSION = "options_version";
+
+    // Key of the store meta value, which holds the ids of the notifications,
+    // which were not restored by the deadline, see restorePending
+    private static final String META_RESTORE_PENDING = "restore_pending";
+
+    // Cached state of the options conversion, see isOptionsConverted
+    private static volatile boolean optionsConverted = false;
+
+    // Ids of the created notification channels. Loaded once from the system
+    // and kept in sync by createChannel(s) and deleteChannel, so checking
+    // if a channel exists needs no IPC call, see getChannelRegistry
+    private static Set<String> channelRegistry = null;
+
+    // Lock for channelRegistry
+    private static final Object channelRegistryLock = new Object();
+
+    // Snapshot of the notifications in the status bar, shared by the
+    // operations of this instance, see getActiveNotificationsSnapshot
+    private ActiveNotifications activeNotifications = null;
+
     public Manager(Context context) {
         this.context = context;
     }
@@ -97,19 +147,73 @@ public final class Manager {
         // Channels are only supported since Android 8
         if (SDK_INT < O) return;
 
-        // Check if channel exists
-        NotificationChannel channel = getChannel(context, options);
-        
-        // Channel already created
-        if (channel != null) return;
+        synchronized (channelRegistryLock) {
+            Set<String> channelIds = getChannelRegistry(context);
+
+            // Channel already created
+            if (channelIds.contains(options.getAndroidChannelId())) return;
+
+            NotificationManagerCompat.from(context).createNotificationChannel(buildChannel(context, options));
+            channelIds.add(options.getAndroidChannelId());
+        }
+    }
+
+    /**
+     * Creates the channels for multiple notifications at once.
+     * All missing channels are created with one call.
+     * @param optionsList Options of the notifications, which can share the same channel.
+     */
+    public static void createChannels(Context context, List<Options> optionsList) {
+        // Channels are only supported since Android 8
+        if (SDK_INT < O || optionsList.isEmpty()) return;
+
+        synchronized (channelRegistryLock) {
+            Set<String> channelIds = getChannelRegistry(context);
+            List<NotificationChannel> newChannels = new ArrayList<NotificationChannel>();
+
+            for (Options options : optionsList) {
+                // Channel already exists or is already added
+                if (channelIds.contains(options.getAndroidChannelId())) continue;
+
+                newChannels.add(buildChannel(context, options));
+                channelIds.add(options.getAndroidChannelId());
+            }
+
+            if (!newChannels.isEmpty()) NotificationManagerCompat.from(context).createNotificationChannels(newChannels);
+        }
+    }
+
+    /**
+     * Gets the ids of the created channels. They will be loaded from
+     * the system when accessed the first time.
+     * Must be called while holding {@link #channelRegistryLock}.
+     */
+    private static Set<String> getChannelRegistry(Context context) {
+        if (channelRegistry != null) return channelRegistry;
+
+        Set<String> channelIds = new HashSet<String>();
+
+        for (NotificationChannel channel : NotificationManagerCompat.from(context).getNotificationChannels()) {
+            channelIds.add(channel.getId());
+        }
+
+        Log.d(TAG, "Loaded channel registry, count=" + channelIds.size());
 
+        channelRegistry = channelIds;
+        return channelRegistry;
+    }
+
+    /**
+     * Builds a new channel from the options. The channel is not created.
+     */
+    private static NotificationChannel buildChannel(Context context, Options options) {
         Log.d(TAG, "Create channel" + 
             ", id=" + options.getAndroidChannelId() +
             ", name=" + options.getAndroidChannelName() +
             ", options=" + options);
 
         // Create new channel
-        channel = new NotificationChannel(
+        NotificationChannel channel = new NotificationChannel(
             options.getAndroidChannelId(),
             options.getAndroidChannelName(), options.getAndroidChannelImportance());
 
@@ -128,7 +232,7 @@ public final class Manager {
         // If options.getSoundUri() is Uri.EMPTY, an empty sound will be set, which means no sound
         channel.setSound(soundUri, new AudioAttributes.Builder().setUsage(options.getSoundUsage()).build());
 
-        NotificationManagerCompat.from(context).createNotificationChannel(channel);
+        return channel;
     }
 
     /**
@@ -143,13 +247,322 @@ public final class Manager {
         Log.d(TAG, "Delete channel, id=" + channelId);
 
         // Cancel all notifications regarding this channel
-        for (Notification notification : new Manager(context).getNotificationsFromSharedPreferences()) {
-            if (notification.getOptions().getAndroidChannelId().equals(channelId)) {
-                notification.cancel();
+        cancelByChannel(channelId);
+
+        synchronized (channelRegistryLock) {
+            NotificationManagerCompat.from(context).deleteNotificationChannel(channelId);
+            getChannelRegistry(context).remove(channelId);
+        }
+    }
+
+    /**
+     * Schedules multiple notifications at once. In contrast to calling {@link Notification#scheduleNext()}
+     * for each notification, the channels and the exact alarm permission are resolved once,
+     * all notifications are stored in one transaction and the alarms are registered in one pass.
+     * @param notifications The notifications to schedule.
+     * @return The notifications, for which an alarm was registered.
+     */
+    public List<Notification> schedule(List<Notification> notifications) {
+        List<Notification> pendingNotifications = new ArrayList<Notification>(notifications.size());
+        List<Options> optionsList = new ArrayList<Options>(notifications.size());
+
+        // Calculate the first occurrence
+        for (Notification notification : notifications) {
+            if (notification.getTriggerHandler().getNextTriggerDate() == null) {
+                Log.d(TAG, "No trigger date available, skipping" +
+                    ", notificationId=" + notification.getId());
+                continue;
+            }
+
+            pendingNotifications.add(notification);
+            optionsList.add(notification.getOptions());
+        }
+
+        if (pendingNotifications.isEmpty()) return pendingNotifications;
+
+        createChannels(context, optionsList);
+
+        // Store notification data for restoration in one transaction
+        // Needed for ClickActivity and ClearReceiver
+        List<NotificationRecord> records = new ArrayList<NotificationRecord>(pendingNotifications.size());
+
+        for (Notification notification : pendingNotifications) {
+            records.add(notification.toRecord());
+
+            // A notification with the same id could be rescheduled with another trigger
+            OccurrenceCache.remove(notification.getId());
+        }
+
+        getStore(context).putAll(records);
+
+        synchronized (notificationIdIndexLock) {
+            IntArraySet index = getNotificationIdIndex(context);
+
+            for (Notification notification : pendingNotifications) {
+                index.add(notification.getId());
+            }
+        }
+
+        Log.d(TAG, "Stored notifications, count=" + records.size());
+
+        return registerAlarms(pendingNotifications);
+    }
+
+    /**
+     * Registers the alarms of stored notifications for their current trigger date.
+     * Notifications, which are due, are shown directly and their next occurrence is scheduled.
+     * @return The notifications, for which an alarm was registered or which were queued.
+     */
+    private List<Notification> registerAlarms(List<Notification> notifications) {
+        boolean canScheduleExactAlarms = canScheduleExactAlarms(context);
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        List<Notification> scheduledNotifications = new ArrayList<Notification>(notifications.size());
+        List<Notification> queuedNotifications = new ArrayList<Notification>();
+
+        // Register the alarms of the queue only once
+        AlarmQueue.beginBatch();
+
+        try {
+            for (Notification notification : notifications) {
+                // Date is in the past, show directly and schedule the next occurrence
+                if (notification.isDue()) {
+                    notification.showDue();
+                    continue;
+                }
+
+                if (notification.getOptions().usesAlarmQueue()) {
+                    queuedNotifications.add(notification);
+                    scheduledNotifications.add(notification);
+                    continue;
+                }
+
+                if (notification.scheduleAlarm(alarmManager, canScheduleExactAlarms)) {
+                    scheduledNotifications.add(notification);
+                }
             }
+
+            AlarmQueue.enqueueAll(context, queuedNotifications);
+        } finally {
+            AlarmQueue.endBatch(context);
+        }
+
+        return scheduledNotifications;
+    }
+
+    /**
+     * Registers the alarms of all stored notifications again, which is needed after the
+     * system removed them, e.g. on a device reboot or app update. The options are parsed
+     * on the worker pool and the alarms are registered in the order of their trigger
+     * date, so the nearest notifications are armed first. Notifications are only stored
+     * again, if their trigger state changed.
+     * The notifications, which are not parsed by the deadline, are restored by a follow-up,
+     * see {@link #restorePending(long)}.
+     * @param deadline Uptime in milliseconds, until the broadcast is finished,
+     *                 see {@link SystemClock#uptimeMillis()}.
+     * @return The number of restored notifications.
+     */
+    public int restore(long deadline) {
+        long startTime = SystemClock.uptimeMillis();
+        List<NotificationRecord> records = getStore(context).getAll();
+
+        return restore(records, startTime, deadline);
+    }
+
+    /**
+     * Restores the notifications, which were not restored by the deadline of
+     * {@link #restore(long)}. Called by the follow-up broadcast of {@link RestoreReceiver}.
+     * @param deadline Uptime in milliseconds, until the broadcast is finished,
+     *                 see {@link SystemClock#uptimeMillis()}.
+     * @return The number of restored notifications.
+     */
+    public int restorePending(long deadline) {
+        long startTime = SystemClock.uptimeMillis();
+        String pendingIds = getStore(context).getMeta(META_RESTORE_PENDING);
+        if (pendingIds == null || pendingIds.isEmpty()) return 0;
+
+        List<NotificationRecord> records = new ArrayList<NotificationRecord>();
+
+        for (String pendingId : pendingIds.split(",")) {
+            // Notification was canceled in the meantime
+            NotificationRecord record = getStore(context).get(Integer.parseInt(pendingId));
+            if (record != null) records.add(record);
         }
 
-        NotificationManagerCompat.from(context).deleteNotificationChannel(channelId);
+        return restore(records, startTime, deadline);
+    }
+
+    /**
+     * Restores the given notifications until the deadline, see {@link #restore(long)}.
+     * @param records Stored notifications, ordered by their trigger date.
+     */
+    private int restore(final List<NotificationRecord> records, long startTime, final long deadline) {
+        long loadTime = SystemClock.uptimeMillis();
+
+        // Convert the options of older plugin versions only once and store them,
+        // so loading the notifications later on can skip the conversion
+        final boolean convertOptions = !isOptionsConverted(context);
+
+        // Parse the options in one chunk per thread of the pool
+        final AtomicReferenceArray<Notification> parsedNotifications = new AtomicReferenceArray<Notification>(records.size());
+        final AtomicIntegerArray parsedStates = new AtomicIntegerArray(records.size());
+        int poolSize = BackgroundExecutor.getPoolSize();
+        int chunkSize = Math.max(1, (records.size() + poolSize - 1) / poolSize);
+        final CountDownLatch parsedChunks = new CountDownLatch((records.size() + chunkSize - 1) / chunkSize);
+        List<Runnable> tasks = new ArrayList<Runnable>(poolSize);
+
+        for (int chunkStart = 0; chunkStart < records.size(); chunkStart += chunkSize) {
+            final int from = chunkStart;
+            final int to = Math.min(chunkStart + chunkSize, records.size());
+
+            tasks.add(new Runnable() {
+                public void run() {
+                    try {
+                        // The remaining records of the chunk are parsed by the follow-up
+                        for (int index = from; index < to && SystemClock.uptimeMillis() < deadline; index++) {
+                            parsedNotifications.set(index, Notification.fromRecord(context, records.get(index), convertOptions));
+                            parsedStates.set(index, 1);
+                        }
+                    } finally {
+                        parsedChunks.countDown();
+                    }
+                }
+            });
+        }
+
+        // The chunks, which are not started by the deadline, are parsed by the follow-up
+        for (int notStarted = BackgroundExecutor.runParallel(tasks, deadline).size(); notStarted > 0; notStarted--) {
+            parsedChunks.countDown();
+        }
+
+        // The running chunks stop at the deadline
+        try {
+            parsedChunks.await(Math.max(0, deadline - SystemClock.uptimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+
+        long parseTime = SystemClock.uptimeMillis();
+
+        // The alarms of the queue were removed by the system or can now be exact
+        AlarmQueue.invalidate();
+
+        boolean[] restored = new boolean[records.size()];
+        int[] counts = new int[2];
+
+        restoreParsed(records, parsedNotifications, parsedStates, restored, counts);
+
+        StringBuilder pendingIds = new StringBuilder();
+
+        for (int index = 0; index < records.size(); index++) {
+            if (restored[index]) continue;
+            if (pendingIds.length() > 0) pendingIds.append(',');
+            pendingIds.append(records.get(index).getId());
+        }
+
+        if (pendingIds.length() > 0) {
+            // The options are only converted, when all records are restored
+            Log.w(TAG, "Deadline reached, restoring remaining notifications by a follow-up" +
+                ", restored=" + counts[0] +
+                ", remaining=" + (records.size() - counts[0]));
+
+            // Stored first, so the follow-up is not lost, if the process is killed
+            getStore(context).putMeta(META_RESTORE_PENDING, pendingIds.toString());
+            context.sendBroadcast(new Intent(context, RestoreReceiver.class).setAction(RestoreReceiver.ACTION_RESTORE_PENDING));
+        } else {
+            getStore(context).putMeta(META_RESTORE_PENDING, null);
+
+            // All records are converted and stored now
+            if (convertOptions) {
+                getStore(context).putMeta(META_OPTIONS_VERSION, Options.VERSION);
+                optionsConverted = true;
+            }
+        }
+
+        long endTime = SystemClock.uptimeMillis();
+
+        Log.d(TAG, "Restored notifications" +
+            ", count=" + counts[0] +
+            ", changed=" + counts[1] +
+            ", loadTime=" + (loadTime - startTime) + "ms" +
+            ", parseTime=" + (parseTime - loadTime) + "ms" +
+            ", scheduleTime=" + (endTime - parseTime) + "ms" +
+            ", totalTime=" + (endTime - startTime) + "ms");
+
+        return counts[0];
+    }
+
+    /**
+     * Stores the changed trigger states, creates the channels and registers the alarms
+     * of the parsed notifications, which are not restored yet.
+     * @param restored Marks the restored records, is updated by this method.
+     * @param counts Number of restored and changed notifications, is updated by this method.
+     */
+    private void restoreParsed(List<NotificationRecord> records, AtomicReferenceArray<Notification> parsedNotifications,
+        AtomicIntegerArray parsedStates, boolean[] restored, int[] counts) {
+        List<Notification> notifications = new ArrayList<Notification>();
+        List<Options> optionsList = new ArrayList<Options>();
+        List<NotificationRecord> changedRecords = new ArrayList<NotificationRecord>();
+        List<NotificationState> changedStates = new ArrayList<NotificationState>();
+
+        for (int index = 0; index < records.size(); index++) {
+            // Not parsed yet or already restored
+            if (parsedStates.get(index) == 0 || restored[index]) continue;
+
+            restored[index] = true;
+            Notification notification = parsedNotifications.get(index);
+
+            // Options could not be parsed
+            if (notification == null) continue;
+
+            NotificationRecord record = records.get(index);
+            Options options = notification.getOptions();
+            Date triggerDate = notification.getTriggerHandler().getTriggerDate();
+
+            if (triggerDate == null) {
+                Log.w(TAG, "No trigger date available, skipping" +
+                    ", notificationId=" + notification.getId());
+
+                // Store the converted options anyway, the notification can still be queried
+                if (options.isConverted()) {
+                    changedRecords.add(new NotificationRecord(
+                        record.getId(), options.getAndroidChannelId(), options.getGroup(), record.getOccurrence(),
+                        record.getTriggerBaseDate(), record.getTriggerDate(), options.toString()));
+                }
+
+                continue;
+            }
+
+            notifications.add(notification);
+            optionsList.add(options);
+
+            // The trigger state was calculated while parsing, because
+            // it was not stored by older plugin versions
+            if (notification.isOptionsDirty()) {
+                changedRecords.add(notification.toRecord());
+            } else if (triggerDate.getTime() != record.getTriggerDate()) {
+                changedStates.add(notification.toState());
+            }
+        }
+
+        // The records are ordered by the stored trigger date, but the
+        // calculated ones can be anywhere
+        if (!changedRecords.isEmpty() || !changedStates.isEmpty()) {
+            Collections.sort(notifications, new Comparator<Notification>() {
+                public int compare(Notification notification1, Notification notification2) {
+                    return notification1.getTriggerHandler().getTriggerDate().compareTo(
+                        notification2.getTriggerHandler().getTriggerDate());
+                }
+            });
+
+            if (!changedRecords.isEmpty()) getStore(context).putAll(changedRecords);
+            if (!changedStates.isEmpty()) getStore(context).putStates(changedStates);
+        }
+
+        createChannels(context, optionsList);
+        registerAlarms(notifications);
+
+        counts[0] += notifications.size();
+        counts[1] += changedRecords.size();
     }
 
     /**
@@ -158,10 +571,10 @@ public final class Manager {
      * @param updates JSON object with notification options.
      */
     public Notification update(int notificationId, JSONObject updates) {
-        Notification notification = Notification.getFromSharedPreferences(context, notificationId);
+        Notification notification = Notification.getFromStore(context, notificationId);
         if (notification == null) return null;
 
-        notification.update(updates);
+        notification.update(updates, getActiveNotificationsSnapshot());
 
         return notification;
     }
@@ -170,43 +583,215 @@ public final class Manager {
      * Clear all local notifications.
      */
     public void clearAll() {
-        for (Notification notification : getByType(TRIGGERED)) {
-            notification.clear();
+        // Register the alarms of the queue only once
+        AlarmQueue.beginBatch();
+
+        try {
+            for (Notification notification : getByType(TRIGGERED)) {
+                notification.clear();
+            }
+        } finally {
+            AlarmQueue.endBatch(context);
         }
 
         NotificationManagerCompat.from(context).cancelAll();
+        activeNotifications = null;
+    }
+
+    /**
+     * Cancel all local notifications of an Android channel.
+     * @return Number of canceled notifications.
+     */
+    public int cancelByChannel(String channelId) {
+        return cancel(getStore(context).getIdsByChannel(channelId));
+    }
+
+    /**
+     * Cancel all local notifications of a group.
+     * @return Number of canceled notifications.
+     */
+    public int cancelByGroup(String group) {
+        return cancel(getStore(context).getIdsByGroup(group));
+    }
+
+    /**
+     * Cancels the notifications with the given ids.
+     * @return Number of canceled notifications.
+     */
+    private int cancel(int[] notificationIds) {
+        int count = 0;
+
+        // Register the alarms of the queue only once
+        AlarmQueue.beginBatch();
+
+        try {
+            for (int notificationId : notificationIds) {
+                Notification notification = Notification.getFromStore(context, notificationId);
+                if (notification == null) continue;
+
+                notification.cancel();
+                count++;
+            }
+        } finally {
+            AlarmQueue.endBatch(context);
+        }
+
+        return count;
+    }
+
+    /**
+     * Clear the triggered local notifications of a group.
+     * @return Number of cleared notifications.
+     */
+    public int clearByGroup(String group) {
+        ActiveNotifications activeNotifications = getActiveNotificationsSnapshot();
+        int count = 0;
+
+        // Register the alarms of the queue only once
+        AlarmQueue.beginBatch();
+
+        try {
+            for (int notificationId : getStore(context).getIdsByGroup(group)) {
+                // Only triggered notifications can be cleared
+                if (!activeNotifications.contains(notificationId)) continue;
+
+                Notification notification = Notification.getFromStore(context, notificationId);
+                if (notification == null) continue;
+
+                notification.clear();
+                count++;
+            }
+        } finally {
+            AlarmQueue.endBatch(context);
+        }
+
+        if (count > 0) this.activeNotifications = null;
+
+        return count;
+    }
+
+    /**
+     * Options of the notifications of a group as JSON strings, see {@link #getOptionsJSON(List)}.
+     */
+    public List<String> getOptionsJSONByGroup(String group) {
+        List<Integer> notificationIds = new ArrayList<Integer>();
+
+        for (int notificationId : getStore(context).getIdsByGroup(group)) {
+            notificationIds.add(notificationId);
+        }
+
+        return getOptionsJSON(notificationIds);
+    }
+
+    /**
+     * Options of the notifications, which trigger next in a time range, as JSON strings,
+     * ordered by their next trigger date, see {@link #getOptionsJSON(List)}.
+     * @param from Start of the range in milliseconds, inclusive.
+     * @param to End of the range in milliseconds, inclusive.
+     * @param limit Maximum number of notifications or 0 for no limit.
+     */
+    public List<String> getOptionsJSONByTriggerDate(long from, long to, int limit) {
+        List<Integer> notificationIds = new ArrayList<Integer>();
+
+        for (int notificationId : getStore(context).getIdsByTriggerDate(from, to, limit)) {
+            notificationIds.add(notificationId);
+        }
+
+        return getOptionsJSON(notificationIds);
     }
 
     /**
      * Cancel all local notifications.
      */
     public void cancelAll() {
-        for (Notification notification : getNotificationsFromSharedPreferences()) {
-            notification.cancel();
+        // Register the alarms of the queue only once
+        AlarmQueue.beginBatch();
+
+        try {
+            for (Notification notification : getNotificationsFromStore()) {
+                notification.cancel();
+            }
+        } finally {
+            AlarmQueue.endBatch(context);
         }
 
         NotificationManagerCompat.from(context).cancelAll();
+        activeNotifications = null;
     }
 
     /**
      * Get saved notification ids
      */
     public List<Integer> getNotificationIds() {
-        List<Integer> notificationIds = new ArrayList<Integer>();
+        synchronized (notificationIdIndexLock) {
+            return getNotificationIdIndex(context).toList();
+        }
+    }
 
-        // Options are stored by the notification id in the shared preferences
-        for (String key : getSharedPreferences().getAll().keySet()) {
-            // Skip keys with underscore for e.g. _occurrence
-            if (key.contains("_")) continue;
+    /**
+     * Get saved notification ids as primitive array, sorted ascending.
+     */
+    public int[] getNotificationIdsArray() {
+        synchronized (notificationIdIndexLock) {
+            return getNotificationIdIndex(context).toArray();
+        }
+    }
 
-            try {
-                notificationIds.add(Integer.parseInt(key));
-            } catch (NumberFormatException exception) {
-                exception.printStackTrace();
-            }
+    /**
+     * Count of saved notifications.
+     */
+    public int getNotificationCount() {
+        synchronized (notificationIdIndexLock) {
+            return getNotificationIdIndex(context).size();
         }
+    }
 
-        return notificationIds;
+    /**
+     * Checks if a notification is saved for an id.
+     */
+    public static boolean hasNotification(Context context, int notificationId) {
+        synchronized (notificationIdIndexLock) {
+            return getNotificationIdIndex(context).contains(notificationId);
+        }
+    }
+
+    /**
+     * Adds a notification id to the in-memory index. Called, when a notification is stored.
+     */
+    static void addToNotificationIdIndex(Context context, int notificationId) {
+        synchronized (notificationIdIndexLock) {
+            getNotificationIdIndex(context).add(notificationId);
+        }
+    }
+
+    /**
+     * Removes a notification id from the in-memory index. Called, when a notification is removed.
+     */
+    static void removeFromNotificationIdIndex(Context context, int notificationId) {
+        synchronized (notificationIdIndexLock) {
+            getNotificationIdIndex(context).remove(notificationId);
+        }
+    }
+
+    /**
+     * Gets the index of stored notification ids. It will be loaded from the
+     * store when accessed the first time.
+     * Must be called while holding {@link #notificationIdIndexLock}.
+     */
+    private static IntArraySet getNotificationIdIndex(Context context) {
+        if (notificationIdIndex != null) return notificationIdIndex;
+
+        int[] ids = getStore(context).getIds();
+        IntArraySet index = new IntArraySet(ids.length);
+
+        for (int id : ids) {
+            index.add(id);
+        }
+
+        Log.d(TAG, "Loaded notification id index, count=" + index.size());
+
+        notificationIdIndex = index;
+        return notificationIdIndex;
     }
 
     /**
@@ -217,18 +802,21 @@ public final class Manager {
         // Returns triggered and scheduled notifications
         if (type == Notification.Type.ALL) return getNotificationIds();
 
-        List<Integer> activeIds = new ArrayList<Integer>();
+        ActiveNotifications activeNotifications = getActiveNotificationsSnapshot();
+        List<Integer> notificationIds = new ArrayList<Integer>();
 
-        for (StatusBarNotification statusBarNotification : getActiveNotifications()) {
-            activeIds.add(statusBarNotification.getId());
-        }
+        if (type == TRIGGERED) {
+            for (int notificationId : activeNotifications.getIds()) {
+                notificationIds.add(notificationId);
+            }
 
-        if (type == TRIGGERED) return activeIds;
+            return notificationIds;
+        }
 
-        // Return scheduled notifications
-        List<Integer> notificationIds = getNotificationIds();
-        // Remove triggered notifications
-        notificationIds.removeAll(activeIds);
+        // Return scheduled notifications, which are not triggered
+        for (int notificationId : getNotificationIdsArray()) {
+            if (!activeNotifications.contains(notificationId)) notificationIds.add(notificationId);
+        }
 
         return notificationIds;
     }
@@ -236,18 +824,18 @@ public final class Manager {
     /**
      * List of all local notification.
      */
-    public List<Notification> getNotificationsFromSharedPreferences() {
-        return getNotificationsFromSharedPreferences(getNotificationIds());
+    public List<Notification> getNotificationsFromStore() {
+        return getNotificationsFromStore(getNotificationIds());
     }
 
     /**
      * List of local notifications with matching ID.
      */
-    public List<Notification> getNotificationsFromSharedPreferences(List<Integer> notificationIds) {
+    public List<Notification> getNotificationsFromStore(List<Integer> notificationIds) {
         List<Notification> notifications = new ArrayList<Notification>();
 
         for (int notificationId : notificationIds) {
-            Notification notification = Notification.getFromSharedPreferences(context, notificationId);
+            Notification notification = Notification.getFromStore(context, notificationId);
             if (notification != null) notifications.add(notification);
         }
 
@@ -260,7 +848,46 @@ public final class Manager {
      * @param type The notification life cycle type
      */
     public List<Notification> getByType(Notification.Type type) {
-        return type == Notification.Type.ALL ? getNotificationsFromSharedPreferences() : getNotificationsFromSharedPreferences(getNotificationIdsByType(type));
+        return type == Notification.Type.ALL ? getNotificationsFromStore() : getNotificationsFromStore(getNotificationIdsByType(type));
+    }
+
+    /**
+     * Options of the notifications from given type as JSON strings, see {@link #getOptionsJSON(List)}.
+     * @param type The notification life cycle type
+     */
+    public List<String> getOptionsJSONByType(Notification.Type type) {
+        if (type != Notification.Type.ALL) return getOptionsJSON(getNotificationIdsByType(type));
+
+        // Options can only be passed through, if they don't need to be converted
+        if (!isOptionsConverted(context)) return getOptionsJSON(getNotificationIds());
+
+        return getStore(context).getAllOptions();
+    }
+
+    /**
+     * Options of the notifications with matching ID as JSON strings, e.g. for the WebView.
+     * The stored options are passed through without parsing them, once they were converted
+     * to the current plugin version. Until then, the notifications are loaded from the
+     * store to convert the options.
+     */
+    public List<String> getOptionsJSON(List<Integer> notificationIds) {
+        if (!isOptionsConverted(context)) {
+            List<String> options = new ArrayList<String>(notificationIds.size());
+
+            for (Notification notification : getNotificationsFromStore(notificationIds)) {
+                options.add(notification.getOptions().toString());
+            }
+
+            return options;
+        }
+
+        int[] ids = new int[notificationIds.size()];
+
+        for (int index = 0; index < ids.length; index++) {
+            ids[index] = notificationIds.get(index);
+        }
+
+        return getStore(context).getOptions(ids);
     }
 
     /**
@@ -269,21 +896,66 @@ public final class Manager {
      * @param notificationId
      */
     StatusBarNotification getActiveNotification(int notificationId) {
-        for (StatusBarNotification statusBarNotification : getActiveNotifications()) {
-            if (statusBarNotification.getId() == notificationId) {
-                return statusBarNotification;
-            }
+        return getActiveNotificationsSnapshot().get(notificationId);
+    }
+
+    /**
+     * Snapshot of the active status bar notifications. Loaded on the first call
+     * and shared by all following calls on this instance.
+     */
+    ActiveNotifications getActiveNotificationsSnapshot() {
+        if (activeNotifications == null) activeNotifications = ActiveNotifications.load(context);
+        return activeNotifications;
+    }
+
+    /**
+     * Gets the store for notifications and action groups.
+     * Defaults to {@link SQLiteNotificationStore}.
+     */
+    public static synchronized NotificationStore getStore(Context context) {
+        if (store == null) store = SQLiteNotificationStore.getInstance(context);
+        return store;
+    }
+
+    /**
+     * Replaces the store for notifications and action groups.
+     * Has to be called before any notification is accessed.
+     */
+    public static synchronized void setStore(NotificationStore notificationStore) {
+        store = notificationStore;
+
+        synchronized (notificationIdIndexLock) {
+            // Reload the index from the new store
+            notificationIdIndex = null;
         }
 
-        return null;
+        // Check the conversion of the new store again
+        optionsConverted = false;
     }
 
-    public SharedPreferences getSharedPreferences() {
-        return getSharedPreferences(context);
+    /**
+     * If all stored options were converted to the current plugin version, so they can be
+     * loaded without converting them again. The store is marked as converted, when it is
+     * created or by {@link #restore(long)}. A store without notifications is marked on the
+     * first check, as it only gets options of the current plugin version.
+     */
+    static boolean isOptionsConverted(Context context) {
+        if (optionsConverted) return true;
+
+        NotificationStore notificationStore = getStore(context);
+        optionsConverted = Options.VERSION.equals(notificationStore.getMeta(META_OPTIONS_VERSION));
+
+        if (!optionsConverted && notificationStore.getIds().length == 0) {
+            notificationStore.putMeta(META_OPTIONS_VERSION, Options.VERSION);
+            optionsConverted = true;
+        }
+
+        return optionsConverted;
     }
 
     /**
-     * Shared private preferences for the application.
+     * Shared private preferences for the application. Notifications and action groups
+     * were stored here until plugin version 1.2.3 and are migrated to the {@link NotificationStore}.
      */
     public static SharedPreferences getSharedPreferences(Context context) {
         return context.getSharedPreferences(PREF_KEY_ID, Context.MODE_PRIVATE);
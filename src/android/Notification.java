@@ -27,7 +27,6 @@ import android.app.PendingIntent;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.graphics.Bitmap;
 import android.net.Uri;
 import android.os.Build;
@@ -46,6 +45,7 @@ import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -58,6 +58,10 @@ import de.appplant.cordova.plugin.localnotification.action.Action;
 import de.appplant.cordova.plugin.localnotification.action.ActionGroup;
 import de.appplant.cordova.plugin.localnotification.receiver.ClearReceiver;
 import de.appplant.cordova.plugin.localnotification.receiver.TriggerReceiver;
+import de.appplant.cordova.plugin.localnotification.store.NotificationRecord;
+import de.appplant.cordova.plugin.localnotification.store.NotificationState;
+import de.appplant.cordova.plugin.localnotification.store.NotificationStore;
+import de.appplant.cordova.plugin.localnotification.store.QueuedAlarm;
 import de.appplant.cordova.plugin.localnotification.trigger.TriggerHandler;
 import de.appplant.cordova.plugin.localnotification.trigger.TriggerHandlerAt;
 import de.appplant.cordova.plugin.localnotification.trigger.TriggerHandlerIn;
@@ -80,6 +84,15 @@ public class Notification {
     // Extra key for the id
     public static String EXTRA_ID = "NOTIFICATION_ID";
 
+    // Extra key for the shown occurrence, see setEventOccurrence
+    public static final String EXTRA_OCCURRENCE = "NOTIFICATION_OCCURRENCE";
+
+    // Minimum number of occurrences, which are calculated for the cache, see getOccurrences
+    private static final int MIN_CACHED_OCCURRENCES = 10;
+
+    // Maximum number of occurrences, which can be requested, see getOccurrences
+    private static final int MAX_OCCURRENCES = 1000;
+
     // Application context passed by constructor
     private Context context;
 
@@ -91,6 +104,15 @@ public class Notification {
      */
     private TriggerHandler triggerhandler;
 
+    // If the options differ from the stored ones, see persist
+    private boolean optionsDirty = true;
+
+    // Number of missed occurrences, which are shown as summary, see showDue
+    private int missedOccurrences = 0;
+
+    // Occurrence, for which the events are fired, 0 for the current one
+    private int eventOccurrence = 0;
+
     /**
      * Constructor
      * @param context Application context.
@@ -98,26 +120,45 @@ public class Notification {
      * @param builder Pre-configured notification builder.
      */
     public Notification(Context context, JSONObject options) {
+        this(context, options, true);
+    }
+
+    /**
+     * Constructor
+     * @param context Application context.
+     * @param options Parsed notification options.
+     * @param convertOptions If the options of older plugin versions should be converted,
+     * see {@link Options#Options(Context, JSONObject, boolean)}.
+     */
+    Notification(Context context, JSONObject options, boolean convertOptions) {
         this.context = context;
-        this.options = new Options(context, options);
-        OptionsTrigger optionsTrigger = this.options.getOptionsTrigger();
+        this.options = new Options(context, options, convertOptions);
+        this.triggerhandler = createTriggerHandler(this.options);
+    }
+
+    /**
+     * Creates the trigger handler for the trigger of the options.
+     * @throws IllegalArgumentException If no trigger is set.
+     */
+    private static TriggerHandler createTriggerHandler(Options options) {
+        OptionsTrigger optionsTrigger = options.getOptionsTrigger();
 
         // Handle trigger.at
         // Example: trigger: { at: new Date(2017, 10, 27, 15) }
-        if (optionsTrigger.getJSON().has("at")) {
-            this.triggerhandler = new TriggerHandlerAt(this.options);
+        if (optionsTrigger.has("at")) {
+            return new TriggerHandlerAt(options);
 
             // Handle trigger.in
             // Example: trigger: { in: 1, unit: 'hour' }
-        } else if (optionsTrigger.getJSON().has("in")) {
-            this.triggerhandler = new TriggerHandlerIn(this.options);
+        } else if (optionsTrigger.has("in")) {
+            return new TriggerHandlerIn(options);
 
             // Handle trigger.every
             // Example:
             // trigger: { every: 'day', count: 5 }
             // trigger: { every: { month: 10, day: 27, hour: 9, minute: 0 } }
-        } else if (optionsTrigger.getJSON().has("every")) {
-            this.triggerhandler = new TriggerHandlerEvery(this.options);
+        } else if (optionsTrigger.has("every")) {
+            return new TriggerHandlerEvery(options);
 
         } else {
             throw new IllegalArgumentException("Trigger not property set");
@@ -157,13 +198,15 @@ public class Notification {
      * Notification type can be one of triggered or scheduled.
      */
     public Type getType() {
-        for (StatusBarNotification statusBarNotification : new Manager(context).getActiveNotifications()) {
-            if (statusBarNotification.getId() == getId()) {
-                return Type.TRIGGERED;
-            }
-        }
+        return getType(ActiveNotifications.load(context));
+    }
 
-        return Type.SCHEDULED;
+    /**
+     * Notification type can be one of triggered or scheduled.
+     * @param activeNotifications Snapshot of the active notifications to look up this notification.
+     */
+    public Type getType(ActiveNotifications activeNotifications) {
+        return activeNotifications.contains(getId()) ? Type.TRIGGERED : Type.SCHEDULED;
     }
 
     /**
@@ -177,7 +220,7 @@ public class Notification {
         Date triggerDate = triggerhandler.getNextTriggerDate();
 
         // No next trigger date available, all triggers are done
-        // The notification will not be removed from SharedPreferences.
+        // The notification will not be removed from the store.
         // This will always do the ClearReceiver and ClickActivity
         if (triggerDate == null) {
             Log.d(TAG, "No next trigger date available" +
@@ -212,16 +255,63 @@ public class Notification {
 
         // Store notification data for restoration
         // Needed for ClickActivity and ClearReceiver
-        storeInSharedPreferences();
+        persist();
 
         // Date is in the past, show directly
-        if (!triggerDate.after(new Date())) {
-            show(false);
-            scheduleNext();
+        if (isDue()) {
+            showDue();
             return false;
         }
 
-        boolean canScheduleExactAlarms = Manager.canScheduleExactAlarms(context);
+        // Share an alarm with the other queued notifications
+        if (options.usesAlarmQueue()) {
+            AlarmQueue.enqueue(context, this);
+            return true;
+        }
+
+        return scheduleAlarm(getAlarmManager(), Manager.canScheduleExactAlarms(context));
+    }
+
+    /**
+     * If the current trigger date is reached, so the notification has to be shown directly
+     * instead of scheduling an alarm.
+     */
+    boolean isDue() {
+        return !triggerhandler.getTriggerDate().after(new Date());
+    }
+
+    /**
+     * Shows the notification, which is due, and schedules the next occurrence.
+     * Occurrences of a repeating trigger, which were missed, e.g. because the
+     * device was turned off, are skipped at once and handled by trigger.catchUp.
+     */
+    void showDue() {
+        int skippedOccurrences = triggerhandler.skipOccurrencesUntil(System.currentTimeMillis());
+        String catchUp = options.getOptionsTrigger().getCatchUp();
+
+        // Only drop occurrences of repeating triggers
+        if (!OptionsTrigger.CATCH_UP_DROP.equals(catchUp) || !(triggerhandler instanceof TriggerHandlerEvery)) {
+            missedOccurrences = OptionsTrigger.CATCH_UP_SUMMARY.equals(catchUp) ? skippedOccurrences + 1 : 0;
+            show(false);
+            missedOccurrences = 0;
+        } else {
+            Log.d(TAG, "Drop missed occurrences" +
+                ", notificationId=" + options.getId() +
+                ", skippedOccurrences=" + skippedOccurrences);
+        }
+
+        scheduleNext();
+    }
+
+    /**
+     * Registers the alarm for the current trigger date. The notification
+     * has to be stored before, so it can be restored when the alarm fires.
+     * @param alarmManager The alarm manager to use.
+     * @param canScheduleExactAlarms If exact alarms are permitted, see {@link Manager#canScheduleExactAlarms(Context)}.
+     * @return true if the alarm was registered, false if an error occured.
+     */
+    boolean scheduleAlarm(AlarmManager alarmManager, boolean canScheduleExactAlarms) {
+        Date triggerDate = triggerhandler.getTriggerDate();
 
         // Intent when the alarm goes off
         Intent alarmFiresIntent = new Intent(context, TriggerReceiver.class)
@@ -247,20 +337,20 @@ public class Notification {
             // Execute alarm even when the system is in low-power idle (a.k.a. doze) modes.
             if (options.isAndroidAllowWhileIdle()) {
                 if (canScheduleExactAlarms) {
-                    getAlarmManager().setExactAndAllowWhileIdle(
+                    alarmManager.setExactAndAllowWhileIdle(
                         options.getAndroidAlarmType(), triggerDate.getTime(), alarmFiresPendingIntent);
                 } else {
-                    getAlarmManager().setAndAllowWhileIdle(
+                    alarmManager.setAndAllowWhileIdle(
                         options.getAndroidAlarmType(), triggerDate.getTime(), alarmFiresPendingIntent);
                 }
 
                 // Execute alarm by RTC or RTC_WAKEUP
             } else {
                 if (canScheduleExactAlarms) {
-                    getAlarmManager().setExact(
+                    alarmManager.setExact(
                         options.getAndroidAlarmType(), triggerDate.getTime(), alarmFiresPendingIntent);
                 } else {
-                    getAlarmManager().set(
+                    alarmManager.set(
                         options.getAndroidAlarmType(), triggerDate.getTime(), alarmFiresPendingIntent);
                 }
             }
@@ -279,9 +369,17 @@ public class Notification {
      * Present the notification to the user
      */
     public void show(boolean isUpdate) {
+        show(isUpdate, null);
+    }
+
+    /**
+     * Present the notification to the user
+     * @param activeNotifications Snapshot of the active notifications or null to load them, if needed.
+     */
+    void show(boolean isUpdate, ActiveNotifications activeNotifications) {
         Log.d(TAG, "Show notification, options=" + options + ", isUpdate=" + isUpdate);
 
-        NotificationCompat.Builder builder = getBuilder(isUpdate);
+        NotificationCompat.Builder builder = getBuilder(isUpdate, activeNotifications);
 
         // Notification should be silent
         if (builder == null) {
@@ -309,16 +407,25 @@ public class Notification {
      * @param updates The properties to update.
      */
     public void update(JSONObject updates) {
+        update(updates, ActiveNotifications.load(context));
+    }
+
+    /**
+     * Update the notification properties.
+     * @param updates The properties to update.
+     * @param activeNotifications Snapshot of the active notifications.
+     */
+    void update(JSONObject updates, ActiveNotifications activeNotifications) {
         Log.d(TAG, "Update notification, options=" + options + ", updates=" + updates);
 
         // Update options of notification
         mergeJSONObjects(updates);
 
         // Store notification data
-        storeInSharedPreferences();
+        persist();
 
         // Update triggered notification in status bar
-        if (getType() == Type.TRIGGERED) show(true);
+        if (getType(activeNotifications) == Type.TRIGGERED) show(true, activeNotifications);
     }
 
     /**
@@ -331,7 +438,7 @@ public class Notification {
         LocalNotification.fireEvent("click", this);
 
         // Clear notification from statusbar if it should not be ongoing
-        // This will also remove the notification from the SharedPreferences
+        // This will also remove the notification from the store
         // if it is the last one
         if (!options.isAndroidOngoing()) clear();
 
@@ -345,7 +452,7 @@ public class Notification {
     
     /**
      * Clears the notification from Statusbar. If the notification was the last one,
-     * the notification will be removed from SharedPreferences.
+     * the notification will be removed from the store.
      * The WebView will receive a clear event, if the app is running.
      */
     public void clear() {
@@ -354,9 +461,9 @@ public class Notification {
         // Clear the notification from the statusbar if posted
         NotificationManagerCompat.from(context).cancel(LocalNotification.getAppName(context), getId());
 
-        // If it is the last occurrence remove the notification from SharedPreferences
+        // If it is the last occurrence remove the notification from the store
         if (triggerhandler.isLastOccurrence()) {
-            removeFromSharedPreferences();
+            removeFromStore();
         }
 
         // Inform WebView about the clearing
@@ -364,7 +471,7 @@ public class Notification {
     }
 
     /**
-     * Cancels the notification and removes it from SharedPreferences.
+     * Cancels the notification and removes it from the store.
      * The WebView will receive a cancel event, if the app is running.
      */
     public void cancel() {
@@ -373,7 +480,7 @@ public class Notification {
         cancelScheduledAlarm();
 
         // Remove saved notification data from the app
-        removeFromSharedPreferences();
+        removeFromStore();
 
         // Clear the notification from the status bar if posted
         NotificationManagerCompat.from(context).cancel(LocalNotification.getAppName(context), getId());
@@ -412,85 +519,138 @@ public class Notification {
     }
 
     /**
-     * Stores the information of this notification in the SharedPreferences.
+     * Stores the information of this notification in the {@link NotificationStore}.
      * This will allow the application to restore the notification upon device reboot,
      * app restart, retrieve notifications, etc.
      */
-    private void storeInSharedPreferences() {
-        Log.d(TAG, "Store notification in SharedPreferences" +
+    private void persist() {
+        Log.d(TAG, "Store notification" +
             ", notificationId=" + options.getId() +
             ", occurrence=" + triggerhandler.getOccurrence() +
             ", triggerDate=" + triggerhandler.getTriggerDate() +
             ", triggerBaseDate=" + triggerhandler.getBaseDate() +
             ", options=" + options);
-        
-        Manager.getSharedPreferences(context).edit()
-        // options as JSON string
-        .putString(getSharedPreferencesKeyOptions(), options.toString())
-        // occurrence for restoration
-        .putInt(getSharedPreferencesKeyOccurrence(), triggerhandler.getOccurrence())
-        // trigger base date for restoration
-        .putLong(getSharedPreferencesKeyTriggerBaseDate(), triggerhandler.getBaseDate().getTime())
-        // calculated triggerDate for restoration
-        .putLong(getSharedPreferencesKeyTriggerDate(), triggerhandler.getTriggerDate().getTime())
-        .apply();
+
+        // The options are unchanged when only the next occurrence was scheduled,
+        // so only the small trigger state has to be written
+        if (optionsDirty) {
+            Manager.getStore(context).put(toRecord());
+            optionsDirty = false;
+
+            // The trigger could have changed
+            OccurrenceCache.remove(getId());
+        } else {
+            Manager.getStore(context).putState(toState());
+        }
+
+        Manager.addToNotificationIdIndex(context, options.getId());
     }
 
     /**
-     * Removes the notification data from the SharedPreferences.
+     * Removes the notification data from the {@link NotificationStore}.
+     * This also removes the trigger from the {@link AlarmQueue}.
      */
-    private void removeFromSharedPreferences() {
-        Log.d(TAG, "Remove notification from SharedPreferences" +
+    private void removeFromStore() {
+        Log.d(TAG, "Remove notification from store" +
             ", notificationId=" + options.getId() +
             ", occurrence=" + triggerhandler.getOccurrence() +
             ", triggerDate=" + triggerhandler.getTriggerDate() +
             ", triggerBaseDate=" + triggerhandler.getBaseDate() +
             ", options=" + options);
 
-        Manager.getSharedPreferences(context).edit()
-        .remove(getSharedPreferencesKeyOptions())
-        .remove(getSharedPreferencesKeyOccurrence())
-        .remove(getSharedPreferencesKeyTriggerBaseDate())
-        .remove(getSharedPreferencesKeyTriggerDate())
-        .apply();
+        Manager.getStore(context).remove(options.getId());
+        Manager.removeFromNotificationIdIndex(context, options.getId());
+        OccurrenceCache.remove(options.getId());
+
+        // The removed trigger could be the one, the shared alarm is set to
+        if (options.usesAlarmQueue()) AlarmQueue.arm(context);
+    }
+
+    /**
+     * Creates the record to store for this notification.
+     */
+    NotificationRecord toRecord() {
+        return new NotificationRecord(
+            options.getId(),
+            options.getAndroidChannelId(),
+            options.getGroup(),
+            // occurrence for restoration
+            triggerhandler.getOccurrence(),
+            // trigger base date for restoration
+            triggerhandler.getBaseDate().getTime(),
+            // calculated triggerDate for restoration
+            triggerhandler.getTriggerDate().getTime(),
+            // options as JSON string
+            options.toString());
     }
 
     /**
-     * Gets a stored notification from the {@link SharedPreferences} by id.
+     * Creates the trigger state to store for this notification.
+     */
+    NotificationState toState() {
+        return new NotificationState(
+            options.getId(),
+            triggerhandler.getOccurrence(),
+            triggerhandler.getBaseDate().getTime(),
+            triggerhandler.getTriggerDate().getTime());
+    }
+
+    /**
+     * If the options differ from the stored ones and have to be written by the next store.
+     */
+    boolean isOptionsDirty() {
+        return optionsDirty;
+    }
+
+    /**
+     * Creates the entry for the {@link AlarmQueue} for the current trigger date.
+     */
+    QueuedAlarm toQueuedAlarm() {
+        return new QueuedAlarm(
+            options.getId(),
+            triggerhandler.getTriggerDate().getTime(),
+            options.getAndroidAlarmType(),
+            options.isAndroidAllowWhileIdle(),
+            options.getAndroidDeliveryWindow());
+    }
+
+    /**
+     * Gets a stored notification from the {@link NotificationStore} by id.
      * If the notification does not exists, null will be returned.
      */
-    public static Notification getFromSharedPreferences(Context context, int notificationId) {
-        String optionsJSONString = Manager.getSharedPreferences(context).getString(
-            getSharedPreferencesKeyOptions(notificationId), null);
+    public static Notification getFromStore(Context context, int notificationId) {
+        // Notification is not stored, no need to query the store
+        if (!Manager.hasNotification(context, notificationId)) {
+            Log.w(TAG, "Could not restore notification from store, id not stored" +
+                ", notificationId=" + notificationId);
+            return null;
+        }
+
+        NotificationRecord record = Manager.getStore(context).get(notificationId);
 
-        Log.d(TAG, "Restoring notification from SharedPreferences" +
-            ", notificationId=" + notificationId +
-            ", options=" + optionsJSONString);
-        
         // Notification does not exists
-        if (optionsJSONString == null) {
-            Log.w(TAG, "Could not restore notification from SharedPreferences, options are null" +
+        if (record == null) {
+            Log.w(TAG, "Could not restore notification from store, record not found" +
                 ", notificationId=" + notificationId);
             return null;
         }
-        
-        try {
-            // Parse options string to JSONObject
-            Notification notification = new Notification(context, new JSONObject(optionsJSONString));
 
-            // Restore state of dateTrigger
-            // Get occurrence
-            int occurrence = Manager.getSharedPreferences(context).getInt(
-                notification.getSharedPreferencesKeyOccurrence(), 0);
-            
-            // Get triger base date
-            long triggerBaseTime = Manager.getSharedPreferences(context).getLong(
-                notification.getSharedPreferencesKeyTriggerBaseDate(), 0);
+        return fromRecord(context, record, !Manager.isOptionsConverted(context));
+    }
 
-            // Get triggerDate
-            long triggerTime = Manager.getSharedPreferences(context).getLong(
-                notification.getSharedPreferencesKeyTriggerDate(), 0);
-            
+    /**
+     * Restores a notification from a stored record.
+     * @param convertOptions If the options of older plugin versions should be converted.
+     * @return null if the options could not be parsed.
+     */
+    static Notification fromRecord(Context context, NotificationRecord record, boolean convertOptions) {
+        Log.d(TAG, "Restoring notification from store" +
+            ", notificationId=" + record.getId() +
+            ", options=" + record.getOptions());
+
+        try {
+            // Parse options string to JSONObject
+            Notification notification = new Notification(context, new JSONObject(record.getOptions()), convertOptions);
             TriggerHandler triggerHandler = notification.getTriggerHandler();
 
             // The saving of occurrence, triggerBaseDate and triggerDate exists since version 1.1.4
@@ -498,25 +658,29 @@ public class Notification {
             // Just caclulate the next trigger from the current time
             // Durring the development of version 1.1.4, first only the occurrence was saved,
             // later also the triggerBaseDate and triggerDate, so check this also
-            if (occurrence == 0 || triggerBaseTime == 0 || triggerTime == 0) {
+            if (record.getOccurrence() == 0 || record.getTriggerBaseDate() == 0 || record.getTriggerDate() == 0) {
                 triggerHandler.getNextTriggerDate();
 
                 // Restore the state of the trigger date
             } else {
-                triggerHandler.restoreState(occurrence, new Date(triggerBaseTime), new Date(triggerTime));
+                triggerHandler.restoreState(
+                    record.getOccurrence(), new Date(record.getTriggerBaseDate()), new Date(record.getTriggerDate()));
             }
-            
+
+            // Converted options have to be stored again
+            notification.optionsDirty = notification.getOptions().isConverted();
+
             Log.d(TAG, "Restored trigger date" +
-                ", notificationId=" + notificationId +
+                ", notificationId=" + record.getId() +
                 ", occurrence=" + triggerHandler.getOccurrence() +
                 ", triggerDate=" + triggerHandler.getTriggerDate() +
                 ", triggerBaseDate=" + triggerHandler.getBaseDate());
 
             return notification;
         } catch (JSONException exception) {
-            Log.e(TAG, "Could not parse stored notification options to JSON" + 
-                ", notificationId=" + notificationId +
-                ", jsonString=" + optionsJSONString,
+            Log.e(TAG, "Could not parse stored notification options to JSON" +
+                ", notificationId=" + record.getId() +
+                ", jsonString=" + record.getOptions(),
                 exception);
             return null;
         }
@@ -536,46 +700,99 @@ public class Notification {
                 jsonException.printStackTrace();
             }
         }
-    }
 
-    public String getSharedPreferencesKeyOccurrence() {
-        return options.getId() + "_occurrence";
+        optionsDirty = true;
+
+        // Options read their values only once, so read the merged values again.
+        // The options were already converted on construction.
+        options = new Options(context, options.getJSON(), false);
+
+        // The trigger handler compiles the trigger on construction, so create it again
+        // for a changed trigger and continue from the current trigger state
+        if (updates.has("trigger")) {
+            TriggerHandler previousTriggerHandler = triggerhandler;
+            triggerhandler = createTriggerHandler(options);
+            triggerhandler.restoreState(
+                previousTriggerHandler.getOccurrence(),
+                previousTriggerHandler.getBaseDate(),
+                previousTriggerHandler.getTriggerDate());
+        } else {
+            triggerhandler.setOptions(options);
+        }
     }
 
-    public String getSharedPreferencesKeyTriggerBaseDate() {
-        return options.getId() + "_triggerBaseDate";
+    public TriggerHandler getTriggerHandler() {
+        return triggerhandler;
     }
 
-    public String getSharedPreferencesKeyTriggerDate() {
-        return options.getId() + "_triggerDate";
+    /**
+     * Sets the occurrence, for which the events are fired. A clicked or cleared notification
+     * shows the occurrence, which was current when it was posted, see {@link #EXTRA_OCCURRENCE}.
+     * @param occurrence Occurrence starting at 1 or 0 for the current one.
+     */
+    public void setEventOccurrence(int occurrence) {
+        eventOccurrence = occurrence;
     }
 
     /**
-     * Get the SharedPreferences key for the notification options.
-     * @return
+     * Occurrence, for which the events are fired, see {@link #setEventOccurrence(int)}.
      */
-    public String getSharedPreferencesKeyOptions() {
-        return "" + getSharedPreferencesKeyOptions(options.getId());
+    public int getEventOccurrence() {
+        return eventOccurrence > 0 ? eventOccurrence : triggerhandler.getOccurrence();
     }
 
     /**
-     * Static version of {@link #getSharedPreferencesKeyOptions()}.
-     * To use, when there is no notification instance available.
-     * @param notificationId
-     * @return
+     * Options of the occurrence, for which the events are fired. Contains
+     * the content of the occurrence, if the notification is a series.
      */
-    public static String getSharedPreferencesKeyOptions(int notificationId) {
-        return "" + notificationId;
+    public Options getEventOptions() {
+        return options.getOccurrenceOptions(getEventOccurrence());
     }
 
-    public TriggerHandler getTriggerHandler() {
-        return triggerhandler;
+    /**
+     * Gets the next occurrences of the trigger, starting with the current trigger date.
+     * The occurrences are calculated once and cached, see {@link OccurrenceCache}.
+     * @param count Maximum number of occurrences, at most {@link #MAX_OCCURRENCES}.
+     * @return Dates in milliseconds, less than count if the trigger has no more occurrences.
+     */
+    public long[] getOccurrences(int count) {
+        Date triggerDate = triggerhandler.getTriggerDate();
+        if (triggerDate == null || count <= 0) return new long[0];
+
+        count = Math.min(count, MAX_OCCURRENCES);
+        int occurrence = triggerhandler.getOccurrence();
+        long[] dates = OccurrenceCache.get(getId(), occurrence, triggerDate.getTime(), count);
+        if (dates != null) return dates;
+
+        // Calculate more than requested, so following requests can be served from the cache
+        int calculateCount = Math.max(count, MIN_CACHED_OCCURRENCES);
+        long[] calculatedDates = new long[calculateCount];
+        calculatedDates[0] = triggerDate.getTime();
+        int calculated = 1;
+
+        // Calculate on a copy, so the state of this notification stays untouched
+        TriggerHandler occurrenceHandler = createTriggerHandler(options);
+        occurrenceHandler.restoreState(occurrence, triggerhandler.getBaseDate(), triggerDate);
+
+        while (calculated < calculateCount) {
+            Date nextTriggerDate = occurrenceHandler.getNextTriggerDate();
+            if (nextTriggerDate == null) break;
+
+            calculatedDates[calculated++] = nextTriggerDate.getTime();
+        }
+
+        boolean complete = calculated < calculateCount;
+        if (complete) calculatedDates = Arrays.copyOf(calculatedDates, calculated);
+
+        OccurrenceCache.put(context, getId(), occurrence, calculatedDates, complete);
+
+        return calculatedDates.length > count ? Arrays.copyOf(calculatedDates, count) : calculatedDates;
     }
 
     /**
      * Alarm manager for the application.
      */
-    private AlarmManager getAlarmManager() {
+    AlarmManager getAlarmManager() {
         return (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
     }
 
@@ -584,15 +801,28 @@ public class Notification {
      * @return The builder instance or null if the notification is silent.
      */
     public NotificationCompat.Builder getBuilder(boolean isUpdate) {
+        return getBuilder(isUpdate, null);
+    }
+
+    /**
+     * Creates a {@link NotificationCompat.Builder} from options
+     * @param activeNotifications Snapshot of the active notifications or null to load them, if needed.
+     * @return The builder instance or null if the notification is silent.
+     */
+    NotificationCompat.Builder getBuilder(boolean isUpdate, ActiveNotifications activeNotifications) {
         if (options.isSilent()) return null;
 
+        // Content of the current occurrence, if the notification is a series
+        Options options = this.options.getOccurrenceOptions(triggerhandler.getOccurrence());
+
         Bundle extras = new Bundle();
         extras.putInt(Notification.EXTRA_ID, options.getId());
 
         NotificationCompat.Builder builder = new NotificationCompat.Builder(context, options.getAndroidChannelId())
             .setExtras(extras)
             .setOnlyAlertOnce(options.isOnlyAlertOnce())
-            .setContentTitle(options.getTitle())
+            // Summary of missed occurrences, see showDue
+            .setContentTitle(missedOccurrences > 1 ? options.getTitle() + " (" + missedOccurrences + ")" : options.getTitle())
             .setContentText(options.getText())
             // Text that summarizes this notification for accessibility services.
             // Since Android 5, this text is no longer shown on screen, but it is
@@ -648,17 +878,16 @@ public class Notification {
         // when using the setSmallIcon(int icon) method.
         builder.setSmallIcon(options.getSmallIcon());
 
-        Bitmap largeIcon = new AssetUtil(context).getBitmap(options.getAndroidLargeIcon());
-        
-        if (largeIcon != null) {
-            if (options.getAndroidLargeIconType().equals(Options.LARGE_ICON_TYPE_CIRCLE)) {
-                largeIcon = AssetUtil.getCircleBitmap(largeIcon);
-            }
+        Bitmap largeIcon = new AssetUtil(context).getBitmap(
+            options.getAndroidLargeIcon(),
+            options.getAndroidLargeIconType().equals(Options.LARGE_ICON_TYPE_CIRCLE) ?
+                AssetUtil.BITMAP_TRANSFORM_CIRCLE : AssetUtil.BITMAP_TRANSFORM_NONE,
+            AssetUtil.BITMAP_SIZE_LARGE_ICON,
+            options.getAndroidBitmapConfig());
 
-            builder.setLargeIcon(largeIcon);
-        }
+        if (largeIcon != null) builder.setLargeIcon(largeIcon);
 
-        applyStyle(builder);
+        applyStyle(builder, options, activeNotifications);
         addActions(builder);
 
         // Supply a PendingIntent to send when the notification is cleared by the user directly from the notification panel
@@ -673,25 +902,31 @@ public class Notification {
     /**
      * Find out and set the notification style.
      * @param builder Notification builder instance.
+     * @param options Options of the occurrence, which is shown.
+     * @param activeNotifications Snapshot of the active notifications or null to load them, if needed.
      */
-    private void applyStyle(NotificationCompat.Builder builder) {
-        if (applyMessagingStyle(builder)) return;
-        if (applyBigPictureStyle(builder)) return;
-        if (applyInboxStyle(builder)) return;
-        if (applyBigTextStyle(builder)) return;
+    private void applyStyle(NotificationCompat.Builder builder, Options options, ActiveNotifications activeNotifications) {
+        if (applyMessagingStyle(builder, options, activeNotifications)) return;
+        if (applyBigPictureStyle(builder, options)) return;
+        if (applyInboxStyle(builder, options)) return;
+        if (applyBigTextStyle(builder, options)) return;
     }
 
     /**
      * Apply messaging style
      * @param builder Notification builder instance
+     * @param options Options of the occurrence, which is shown.
+     * @param activeNotifications Snapshot of the active notifications or null to load them.
      * @return true if the messaging style was applied
      */
-    private boolean applyMessagingStyle(NotificationCompat.Builder builder) {
+    private boolean applyMessagingStyle(NotificationCompat.Builder builder, Options options, ActiveNotifications activeNotifications) {
         MessagingStyle.Message[] messages = options.getAndroidMessages();
         if (messages == null) return false;
 
+        if (activeNotifications == null) activeNotifications = ActiveNotifications.load(context);
+
         // Find if there is a notification already displayed with this ID.
-        StatusBarNotification activeNotification = new Manager(context).getActiveNotification(options.getId());
+        StatusBarNotification activeNotification = activeNotifications.get(options.getId());
 
         MessagingStyle style = activeNotification != null ?
             // If the notification was already displayed, extract the MessagingStyle to add the message
@@ -724,9 +959,10 @@ public class Notification {
     /**
      * Apply big picture style. Only uses the first attachment.
      * @param builder Notification builder instance
+     * @param options Options of the occurrence, which is shown.
      * @return true if the big picture style was applied
      */
-    private boolean applyBigPictureStyle(NotificationCompat.Builder builder) {
+    private boolean applyBigPictureStyle(NotificationCompat.Builder builder, Options options) {
         List<Bitmap> attachmentsPictures = options.getAttachments();
         if (attachmentsPictures == null || attachmentsPictures.size() == 0) return false;
 
@@ -741,9 +977,10 @@ public class Notification {
     /**
      * Apply inbox style
      * @param builder Notification builder instance
+     * @param options Options of the occurrence, which is shown.
      * @return true if the inbox style was applied
      */
-    private boolean applyInboxStyle(NotificationCompat.Builder builder) {
+    private boolean applyInboxStyle(NotificationCompat.Builder builder, Options options) {
         if (!options.getText().contains("\n")) return false;
 
         NotificationCompat.InboxStyle style = new NotificationCompat.InboxStyle(builder)
@@ -760,9 +997,10 @@ public class Notification {
     /**
      * Apply big text style
      * @param builder Notification builder instance
+     * @param options Options of the occurrence, which is shown.
      * @return true if the big text style was applied
      */
-    private boolean applyBigTextStyle(NotificationCompat.Builder builder) {
+    private boolean applyBigTextStyle(NotificationCompat.Builder builder, Options options) {
         if (options.getSummary() == null && options.getText().length() < 45) return false;
         builder.setStyle(new NotificationCompat.BigTextStyle(builder)
             .setSummaryText(options.getSummary())
@@ -778,8 +1016,9 @@ public class Notification {
      */
     private void setDeleteIntent(NotificationCompat.Builder builder) {
         Intent intent = new Intent(context, ClearReceiver.class)
-            .setAction(options.getId().toString())
-            .putExtra(Notification.EXTRA_ID, options.getId());
+            .setAction(String.valueOf(options.getId()))
+            .putExtra(Notification.EXTRA_ID, options.getId())
+            .putExtra(Notification.EXTRA_OCCURRENCE, triggerhandler.getOccurrence());
 
         builder.setDeleteIntent(PendingIntent.getBroadcast(
             context, 0, intent, PendingIntent.FLAG_IMMUTABLE | PendingIntent.FLAG_UPDATE_CURRENT));
@@ -793,6 +1032,7 @@ public class Notification {
         // Route content tap to a transparent activity to avoid trampoline and still run plugin logic
         Intent clickIntent = new Intent(context, ClickActivity.class)
             .putExtra(Notification.EXTRA_ID, options.getId())
+            .putExtra(Notification.EXTRA_OCCURRENCE, triggerhandler.getOccurrence())
             .setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
 
         PendingIntent contentPendingIntent = PendingIntent.getActivity(
@@ -823,6 +1063,7 @@ public class Notification {
         // Route content tap to a transparent activity to avoid trampoline and still run plugin logic
         Intent actionClickIntent = new Intent(context, ClickActivity.class)
             .putExtra(Notification.EXTRA_ID, options.getId())
+            .putExtra(Notification.EXTRA_OCCURRENCE, triggerhandler.getOccurrence())
             .putExtra(Action.EXTRA_ID, action.getId())
             .setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
 
@@ -0,0 +1,155 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.util.Log;
+import android.util.SparseArray;
+
+import java.util.Arrays;
+
+/**
+ * Caches the next occurrences of notifications, so previews of repeating triggers
+ * do not have to calculate the whole chain again. An entry is bound to the trigger
+ * state it was calculated from. If the notification moves on to a later occurrence,
+ * the entry is used from that occurrence on. Entries are removed, if the options
+ * of a notification change, and all entries are cleared, if the time or the
+ * time zone of the device changes.
+ */
+final class OccurrenceCache {
+
+    private static final String TAG = "OccurrenceCache";
+
+    // Maximum number of cached notifications, the cache is cleared if exceeded
+    private static final int MAX_ENTRIES = 100;
+
+    private static final SparseArray<Entry> entries = new SparseArray<Entry>();
+
+    // Clears the cache, if the time or time zone changes, registered with the first entry
+    private static BroadcastReceiver timeChangeReceiver = null;
+
+    // Lock for entries and timeChangeReceiver
+    private static final Object lock = new Object();
+
+    private OccurrenceCache() {}
+
+    /**
+     * Gets the cached occurrences of a notification.
+     * @param occurrence Current occurrence of the notification.
+     * @param triggerDate Current trigger date of the notification in milliseconds.
+     * @param count Number of requested occurrences.
+     * @return The occurrences starting with the trigger date, which can be less than
+     * requested if the trigger has no more occurrences, or null if not cached.
+     */
+    static long[] get(int notificationId, int occurrence, long triggerDate, int count) {
+        synchronized (lock) {
+            Entry entry = entries.get(notificationId);
+            if (entry == null) return null;
+
+            // Position of the current trigger date in the cached occurrences
+            int offset = occurrence - entry.occurrence;
+
+            if (offset < 0 || offset >= entry.dates.length || entry.dates[offset] != triggerDate) {
+                entries.remove(notificationId);
+                return null;
+            }
+
+            int available = entry.dates.length - offset;
+
+            // Not enough occurrences calculated
+            if (available < count && !entry.complete) return null;
+
+            return Arrays.copyOfRange(entry.dates, offset, offset + Math.min(available, count));
+        }
+    }
+
+    /**
+     * Caches the occurrences of a notification.
+     * @param occurrence Occurrence of the first date.
+     * @param dates Occurrences in milliseconds, the first one is the current trigger date.
+     * @param complete If the trigger has no more occurrences than the given ones.
+     */
+    static void put(Context context, int notificationId, int occurrence, long[] dates, boolean complete) {
+        synchronized (lock) {
+            registerTimeChangeReceiver(context);
+
+            if (entries.size() >= MAX_ENTRIES && entries.indexOfKey(notificationId) < 0) entries.clear();
+            entries.put(notificationId, new Entry(occurrence, dates, complete));
+        }
+    }
+
+    /**
+     * Removes the cached occurrences of a notification, e.g. because its options changed.
+     */
+    static void remove(int notificationId) {
+        synchronized (lock) {
+            entries.remove(notificationId);
+        }
+    }
+
+    static void clear() {
+        synchronized (lock) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * The occurrences are calculated in the time zone of the device, so they
+     * become invalid, if the time zone or the time is changed.
+     * Must be called while holding {@link #lock}.
+     */
+    private static void registerTimeChangeReceiver(Context context) {
+        if (timeChangeReceiver != null) return;
+
+        timeChangeReceiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                Log.d(TAG, "Clear cache, received action: " + intent.getAction());
+                clear();
+            }
+        };
+
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_TIME_CHANGED);
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+
+        context.getApplicationContext().registerReceiver(timeChangeReceiver, filter);
+    }
+
+    private static final class Entry {
+
+        private final int occurrence;
+
+        private final long[] dates;
+
+        private final boolean complete;
+
+        Entry(int occurrence, long[] dates, boolean complete) {
+            this.occurrence = occurrence;
+            this.dates = dates;
+            this.complete = complete;
+        }
+    }
+}
@@ -42,6 +42,7 @@ import org.json.JSONObject;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
 
 import de.appplant.cordova.plugin.localnotification.OptionsTrigger;
@@ -53,14 +54,23 @@ import de.appplant.cordova.plugin.localnotification.util.AssetUtil;
  * Wrapper around the JSON object passed through JS which contains all
  * possible option values. Class provides simple readers and more advanced
  * methods to convert independent values into platform specific values.
+ * The values are read once on construction, so changes to the JSON object
+ * are not reflected. Create a new instance after changing the JSON object.
  */
 public final class Options {
 
     private static final String TAG = "Options";
 
+    // Current plugin version, the options are converted to.
+    // Has to match meta.version, which is set by local-notification.js
+    public static final String VERSION = "1.2.3";
+
     public static final String LARGE_ICON_TYPE_SQUARE = "square";
     public static final String LARGE_ICON_TYPE_CIRCLE = "circle";
 
+    // Properties, which can be overridden per occurrence by androidSeries
+    private static final String[] SERIES_PROPERTIES = {"title", "text", "androidSummary", "badgeNumber"};
+
     // The original JSON object
     private final JSONObject options;
 
@@ -70,6 +80,66 @@ public final class Options {
     // Asset util instance
     private final AssetUtil assetUtil;
 
+    // Label of the app, see getTitle
+    private static volatile String appLabel = null;
+
+    // Values read from the JSON object by the constructor.
+    // The options are read on every build of a notification, the fields
+    // avoid to look up and convert the JSON values every time.
+    private final int id;
+    private final int badgeNumber;
+    private final boolean androidOngoing;
+    private final boolean androidAutoCancel;
+    private final OptionsTrigger optionsTrigger;
+    private final boolean silent;
+    private final String group;
+    private final boolean groupSummary;
+    private final boolean launch;
+    private final long androidTimeoutAfter;
+    private final String androidChannelId;
+    private final String androidChannelName;
+    private final int androidChannelImportance;
+    private final String androidChannelDescription;
+    private final String text;
+    private final String title;
+    private final int color;
+    private final String sound;
+    private final int soundUsage;
+    private final String androidLargeIcon;
+    private final String androidLargeIconType;
+    private final String androidSmallIcon;
+    private final boolean androidChannelEnableVibration;
+    private final int ledColor;
+    private final int ledOn;
+    private final int ledOff;
+    private final boolean androidChannelEnableLights;
+    private final int defaults;
+    private final int visibility;
+    private final boolean androidShowWhen;
+    private final boolean androidUsesChronometer;
+    private final JSONObject progressBar;
+    private final int progressValue;
+    private final int progressMaxValue;
+    private final boolean progressIndeterminate;
+    private final String summary;
+    private final String actionsGroupId;
+    private final String titleCount;
+    private final boolean onlyAlertOnce;
+    private final int androidAlarmType;
+    private final boolean androidAllowWhileIdle;
+    private final Bitmap.Config androidBitmapConfig;
+    private final boolean androidAlarmQueue;
+    private final long androidDeliveryWindow;
+    private final boolean androidWakeUpScreen;
+    private final JSONArray androidSeries;
+
+    // If properties of an older plugin version were converted
+    private boolean converted = false;
+
+    // Resolved on first usage, see getSoundUri and getSmallIcon
+    private Uri soundUri = null;
+    private int smallIcon = 0;
+
     /**
      * Constructor
      *
@@ -77,39 +147,88 @@ public final class Options {
      * @param options The options dict map.
      */
     public Options(Context context, JSONObject options) {
+        this(context, options, true);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param context The application context.
+     * @param options The options dict map.
+     * @param convert If the properties of older plugin versions should be converted.
+     * Can be false, if the options are known to be of the current {@link #VERSION}.
+     */
+    public Options(Context context, JSONObject options, boolean convert) {
         this.context = context;
 
         // Workaround: Correct properties in Java instead in JavaScript
         // when the app was updated. {@link RestoreReceiver} will be called
         // and there is no WebView at this point because no Activity will be started.
-        try {
-            // Check meta.version
-            JSONObject meta = options.getJSONObject("meta");
-            String metaVersion = meta.getString("version");
-
-            // Update properties for older versions
-            if (isVersionOlder(metaVersion, "1.1.0")) convertPropertiesForVersion110(options);
-            if (isVersionOlder(metaVersion, "1.1.1")) convertPropertiesForVersion111(options);
-            if (isVersionOlder(metaVersion, "1.1.8")) convertPropertiesForVersion118(options);
-
-            // Update meta.version to current plugin version
-            if (!metaVersion.equals("1.2.3")) {
-                meta.put("version", "1.2.3");
-                options.put("meta", meta);
-            }
-        } catch (JSONException exception) {
-            Log.e(TAG, "Could not convert properties for current plugin version", exception);
-        }
+        if (convert) this.converted = convertProperties(options);
 
         this.options = options;
         this.assetUtil = new AssetUtil(context);
+
+        // Read all values once, the getters only return the fields
+        this.id = options.optInt("id");
+        this.badgeNumber = options.optInt("badgeNumber", 1);
+        this.androidOngoing = options.optBoolean("androidOngoing", false);
+        this.androidAutoCancel = options.optBoolean("androidAutoCancel", true);
+        this.optionsTrigger = new OptionsTrigger(options.optJSONObject("trigger"));
+        this.silent = options.optBoolean("silent", false);
+        this.group = options.optString("androidGroup", null);
+        this.groupSummary = options.optBoolean("androidGroupSummary", false);
+        this.launch = options.optBoolean("launch", true);
+        this.androidTimeoutAfter = options.optLong("androidTimeoutAfter", 0);
+        this.androidChannelId = options.optString("androidChannelId", "default_channel");
+        this.androidChannelName = options.optString("androidChannelName", "Default channel");
+        this.androidChannelImportance = options.optInt("androidChannelImportance", NotificationManagerCompat.IMPORTANCE_DEFAULT);
+        this.androidChannelDescription = options.optString("androidChannelDescription", null);
+        this.text = options.optString("text", "");
+        this.title = options.optString("title", "");
+        this.color = parseColor(options.optString("androidColor", null));
+        this.sound = options.optString("sound", "default");
+        this.soundUsage = options.optInt("androidChannelSoundUsage", AudioAttributes.USAGE_NOTIFICATION);
+        this.androidLargeIcon = options.optString("androidLargeIcon", null);
+        this.androidLargeIconType = options.optString("androidLargeIconType", LARGE_ICON_TYPE_SQUARE);
+        this.androidSmallIcon = options.optString("androidSmallIcon");
+        this.androidChannelEnableVibration = options.optBoolean("androidChannelEnableVibration", false);
+
+        Object led = options.opt("led");
+        this.ledColor = parseLedColor(led);
+        this.ledOn = parseLedDuration(led, 1, "on");
+        this.ledOff = parseLedDuration(led, 2, "off");
+        this.androidChannelEnableLights = options.optBoolean("androidChannelEnableLights", false);
+        this.defaults = parseDefaults(options.optInt("androidDefaults"), androidChannelEnableVibration, sound, led);
+
+        this.visibility = options.optBoolean("androidLockscreen", true) ? NotificationCompat.VISIBILITY_PUBLIC : NotificationCompat.VISIBILITY_SECRET;
+        this.androidShowWhen = options.optBoolean("androidShowWhen", true);
+        this.androidUsesChronometer = options.optBoolean("androidUsesChronometer", false);
+
+        this.progressBar = options.optJSONObject("androidProgressBar");
+        this.progressValue = progressBar != null ? progressBar.optInt("value", 0) : 0;
+        this.progressMaxValue = progressBar != null ? progressBar.optInt("maxValue", 100) : 100;
+        this.progressIndeterminate = progressBar != null && progressBar.optBoolean("indeterminate", false);
+
+        this.summary = options.optString("androidSummary", null);
+        this.actionsGroupId = options.optString("actions", null);
+        this.titleCount = options.optString("androidTitleCount", null);
+        this.onlyAlertOnce = options.optBoolean("androidOnlyAlertOnce", false);
+        this.androidAlarmType = options.optInt("androidAlarmType", AlarmManager.RTC_WAKEUP);
+        this.androidAllowWhileIdle = options.optBoolean("androidAllowWhileIdle", false);
+        this.androidBitmapConfig = "ARGB_8888".equals(options.optString("androidBitmapConfig", null)) ?
+            Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565;
+        this.androidAlarmQueue = options.optBoolean("androidAlarmQueue", false);
+        this.androidDeliveryWindow = Math.max(0, options.optLong("androidDeliveryWindow", 0));
+        this.androidWakeUpScreen = options.optBoolean("androidWakeUpScreen", true);
+        this.androidSeries = options.optJSONArray("androidSeries");
     }
 
     /**
      * Converts properties for version 1.1.0. There have been some properties renamed.
      * This removes old properties and sets it under the new name.
      */
-    public void convertPropertiesForVersion110(JSONObject options) throws JSONException {
+    public static void convertPropertiesForVersion110(JSONObject options) throws JSONException {
         Log.d(TAG, "Converting properties for version 1.1.0");
         
         // autoClear to androidAutoCancel
@@ -307,7 +426,7 @@ public final class Options {
     /**
      *  Converts properties for version 1.1.0
      */
-    public void convertPropertiesForVersion111(JSONObject options) throws JSONException {
+    public static void convertPropertiesForVersion111(JSONObject options) throws JSONException {
         Log.d(TAG, "Converting properties for version 1.1.1");
 
         // vibrate to androidChannelEnableVibration
@@ -320,7 +439,7 @@ public final class Options {
     /**
      *  Converts properties for version 1.1.8
      */
-    public void convertPropertiesForVersion118(JSONObject options) throws JSONException {
+    public static void convertPropertiesForVersion118(JSONObject options) throws JSONException {
         Log.d(TAG, "Converting properties for version 1.1.8");
 
         // Ensure, there is minimum a trigger.at otherwise it would schedule notifications endless
@@ -331,6 +450,42 @@ public final class Options {
         }
     }
 
+    /**
+     * Converts the properties of older plugin versions to the current {@link #VERSION}.
+     * @return true if the options were of an older version and have been changed.
+     */
+    private static boolean convertProperties(JSONObject options) {
+        try {
+            // Check meta.version
+            JSONObject meta = options.getJSONObject("meta");
+            String metaVersion = meta.getString("version");
+
+            if (metaVersion.equals(VERSION)) return false;
+
+            // Update properties for older versions
+            if (isVersionOlder(metaVersion, "1.1.0")) convertPropertiesForVersion110(options);
+            if (isVersionOlder(metaVersion, "1.1.1")) convertPropertiesForVersion111(options);
+            if (isVersionOlder(metaVersion, "1.1.8")) convertPropertiesForVersion118(options);
+
+            // Update meta.version to current plugin version
+            meta.put("version", VERSION);
+            options.put("meta", meta);
+
+            return true;
+        } catch (JSONException exception) {
+            Log.e(TAG, "Could not convert properties for current plugin version", exception);
+            return false;
+        }
+    }
+
+    /**
+     * If properties of an older plugin version were converted on construction.
+     * The converted options should be stored, so the conversion is not needed again.
+     */
+    public boolean isConverted() {
+        return converted;
+    }
+
     /**
      * Application context.
      */
@@ -357,8 +512,8 @@ public final class Options {
      *
      * @return 0 if the user did not specify.
      */
-    public Integer getId() {
-        return options.optInt("id");
+    public int getId() {
+        return id;
     }
 
     /**
@@ -366,7 +521,7 @@ public final class Options {
      * Defaults to 1 if not set.
      */
     public int getBadgeNumber() {
-        return options.optInt("badgeNumber", 1);
+        return badgeNumber;
     }
 
     /**
@@ -379,23 +534,23 @@ public final class Options {
      * 
      * Defaults to false if not set.
      */
-    public Boolean isAndroidOngoing() {
-        return options.optBoolean("androidOngoing", false);
+    public boolean isAndroidOngoing() {
+        return androidOngoing;
     }
 
     /**
      * Make this notification automatically dismissed when the user touches it.
      * Defaults to true if not set.
      */
-    Boolean isAndroidAutoCancel() {
-        return options.optBoolean("androidAutoCancel", true);
+    boolean isAndroidAutoCancel() {
+        return androidAutoCancel;
     }
 
     /**
      * Gets the trigger property as an Object.
      */
     public OptionsTrigger getOptionsTrigger() {
-        return new OptionsTrigger(getTriggerJSON());
+        return optionsTrigger;
     }
 
     public JSONObject getTriggerJSON() {
@@ -406,7 +561,7 @@ public final class Options {
      * Gets the value of the silent flag.
      */
     boolean isSilent() {
-        return options.optBoolean("silent", false);
+        return silent;
     }
 
     /**
@@ -417,8 +572,8 @@ public final class Options {
      * 
      * Defaults to null if not set.
      */
-    String getGroup() {
-        return options.optString("androidGroup", null);
+    public String getGroup() {
+        return group;
     }
 
     /**
@@ -430,14 +585,14 @@ public final class Options {
      * Defaults to false if not set.
      */
     boolean isGroupSummary() {
-        return options.optBoolean("androidGroupSummary", false);
+        return groupSummary;
     }
 
     /**
      * Should a click on the notification launch the app.
      */
     boolean isLaunch() {
-        return options.optBoolean("launch", true);
+        return launch;
     }
 
     /**
@@ -447,7 +602,7 @@ public final class Options {
      * Defaults to 0 if not set.
      */
     long getAndroidTimeoutAfter() {
-        return options.optLong("androidTimeoutAfter", 0);
+        return androidTimeoutAfter;
     }
 
     /**
@@ -455,7 +610,7 @@ public final class Options {
      * Defaults to 'default_channel' if not set.
      */
     public String getAndroidChannelId() {
-        return options.optString("androidChannelId", "default_channel");
+        return androidChannelId;
     }
 
     /**
@@ -464,7 +619,7 @@ public final class Options {
      * @return
      */
     String getAndroidChannelName() {
-        return options.optString("androidChannelName", "Default channel");
+        return androidChannelName;
     }
 
     /**
@@ -473,7 +628,7 @@ public final class Options {
      * @return
      */
     int getAndroidChannelImportance() {
-        return options.optInt("androidChannelImportance", NotificationManagerCompat.IMPORTANCE_DEFAULT);
+        return androidChannelImportance;
     }
 
     /**
@@ -481,27 +636,32 @@ public final class Options {
      * Defaults to null if not set.
      */
     String getAndroidChannelDescription() {
-        return options.optString("androidChannelDescription", null);
+        return androidChannelDescription;
     }
 
     /**
      * Text for the notification.
      */
     public String getText() {
-        return options.optString("text", "");
+        return text;
     }
 
     /**
      * Title for the local notification. If empty, the app name will be used.
      */
     public String getTitle() {
-        String title = options.optString("title", "");
+        return title.isEmpty() ? getAppLabel(context) : title;
+    }
 
-        if (title.isEmpty()) {
-            title = context.getApplicationInfo().loadLabel(context.getPackageManager()).toString();
+    /**
+     * Label of the app. Loaded once per process, as the {@link android.content.pm.PackageManager} is slow.
+     */
+    private static String getAppLabel(Context context) {
+        if (appLabel == null) {
+            appLabel = context.getApplicationInfo().loadLabel(context.getPackageManager()).toString();
         }
 
-        return title;
+        return appLabel;
     }
 
     /**
@@ -509,8 +669,13 @@ public final class Options {
      * Defaults to {@link NotificationCompat.COLOR_DEFAULT} if not set or invalid.
      */
     public int getColor() {
-        String androidColor = options.optString("androidColor", null);
-        
+        return color;
+    }
+
+    /**
+     * Parses the androidColor hex string.
+     */
+    private int parseColor(String androidColor) {
         if (androidColor == null) return NotificationCompat.COLOR_DEFAULT;
 
         try {
@@ -529,23 +694,25 @@ public final class Options {
      * Defaults to 'default' if not set, which represents the default notification sound.
      */
     String getSound() {
-        return options.optString("sound", "default");
+        return sound;
     }
 
     /**
-     * Sound file path for the local notification.
+     * Sound file path for the local notification. Resolved on the first call.
      * @return Uri of the sound file or {@link Uri.EMPTY} if not set.
      */
     public Uri getSoundUri() {
-        String soundName = getSound();
-
-        if (soundName == null || soundName.isEmpty()) return Uri.EMPTY;
+        if (soundUri != null) return soundUri;
 
-        if (soundName.equals("default")) {
-            return RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION);
+        if (sound == null || sound.isEmpty()) {
+            soundUri = Uri.EMPTY;
+        } else if (sound.equals("default")) {
+            soundUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_NOTIFICATION);
         } else {
-            return assetUtil.getUri(soundName, AssetUtil.RESOURCE_TYPE_RAW);
+            soundUri = assetUtil.getUri(sound, AssetUtil.RESOURCE_TYPE_RAW);
         }
+
+        return soundUri;
     }
 
     /**
@@ -553,14 +720,14 @@ public final class Options {
      * Defaults to {@link AudioAttributes.USAGE_NOTIFICATION} if not set.
      */
     int getSoundUsage() {
-        return options.optInt("androidChannelSoundUsage", AudioAttributes.USAGE_NOTIFICATION);
+        return soundUsage;
     }
 
     /**
      * Defaults to null if not set.
      */
     public String getAndroidLargeIcon() {
-        return options.optString("androidLargeIcon", null);
+        return androidLargeIcon;
     }
 
     /**
@@ -568,29 +735,32 @@ public final class Options {
      * Defaults to {@link #LARGE_ICON_TYPE_SQUARE} if not set.
      */
     public String getAndroidLargeIconType() {
-        return options.optString("androidLargeIconType", LARGE_ICON_TYPE_SQUARE);
+        return androidLargeIconType;
     }
 
     /**
      * Gets the small icon resource, which will be used to represent the notification in the status bar.
      * The platform template for the expanded view will draw this icon in the left, unless a large icon
      * has also been specified, in which case the small icon will be moved to the right-hand side.
+     * The resource is resolved on the first call.
      * 
      * Defaults to 'ic_popup_reminder' if not set, or wrongly set.
      */
     int getSmallIcon() {
-        String smallIconPath = options.optString("androidSmallIcon");
+        if (smallIcon != 0) return smallIcon;
 
         // Try to get the resource from the app resources or system resources
-        int resId = assetUtil.getResourceId(smallIconPath, AssetUtil.RESOURCE_TYPE_DRAWABLE);
+        int resId = assetUtil.getResourceId(androidSmallIcon, AssetUtil.RESOURCE_TYPE_DRAWABLE);
 
         // Log error, if no icon is found and fallback to a system icon, which should exists
         if (resId == 0) {
-            Log.e(TAG, "androidSmallIcon not found, using system icon 'ic_popup_reminder', androidSmallIcon=" + smallIconPath);
+            Log.e(TAG, "androidSmallIcon not found, using system icon 'ic_popup_reminder', androidSmallIcon=" + androidSmallIcon);
             // Fallback to a system icon, which should exists
             resId = assetUtil.getResourceId("ic_popup_reminder", AssetUtil.RESOURCE_TYPE_DRAWABLE);
         }
 
+        smallIcon = resId;
+
         return resId;
     }
 
@@ -598,7 +768,7 @@ public final class Options {
      * Defaults to false if not set.
      */
     boolean isAndroidChannelEnableVibration() {
-        return options.optBoolean("androidChannelEnableVibration", false);
+        return androidChannelEnableVibration;
     }
 
     /**
@@ -613,11 +783,18 @@ public final class Options {
      * Only prior to Android 8. The notification color for LED.
      */
     int getLedColor() {
+        return ledColor;
+    }
+
+    /**
+     * Parses the color of the led option.
+     */
+    private static int parseLedColor(Object led) {
         String hex = null;
 
-        if (getLed() instanceof String) hex = (String) getLed();
-        if (getLed() instanceof JSONArray) hex = ((JSONArray) getLed()).optString(0);
-        if (getLed() instanceof JSONObject) hex = ((JSONObject) getLed()).optString("color");
+        if (led instanceof String) hex = (String) led;
+        if (led instanceof JSONArray) hex = ((JSONArray) led).optString(0);
+        if (led instanceof JSONObject) hex = ((JSONObject) led).optString("color");
 
         if (hex == null) return 0;
 
@@ -634,22 +811,26 @@ public final class Options {
      * Only prior to Android 8.
      */
     int getLedOn() {
-        int defaultValue = 1000;
-
-        if (getLed() instanceof JSONArray) return ((JSONArray) getLed()).optInt(1, defaultValue);
-        if (getLed() instanceof JSONObject) return ((JSONObject) getLed()).optInt("on", defaultValue);
-
-        return defaultValue;
+        return ledOn;
     }
 
     /**
      * Only prior to Android 8.
      */
     int getLedOff() {
+        return ledOff;
+    }
+
+    /**
+     * Parses the on or off duration of the led option.
+     * @param index Index of the value, if the led option is an array.
+     * @param key Key of the value, if the led option is an object.
+     */
+    private static int parseLedDuration(Object led, int index, String key) {
         int defaultValue = 1000;
 
-        if (getLed() instanceof JSONArray) return ((JSONArray) getLed()).optInt(2, defaultValue);
-        if (getLed() instanceof JSONObject) return ((JSONObject) getLed()).optInt("off", defaultValue);
+        if (led instanceof JSONArray) return ((JSONArray) led).optInt(index, defaultValue);
+        if (led instanceof JSONObject) return ((JSONObject) led).optInt(key, defaultValue);
 
         return defaultValue;
     }
@@ -659,7 +840,7 @@ public final class Options {
      * should display notification lights, on devices that support that feature.
      */
     boolean getAndroidChannelEnableLights() {
-        return options.optBoolean("androidChannelEnableLights", false);
+        return androidChannelEnableLights;
     }
 
     /**
@@ -669,15 +850,20 @@ public final class Options {
      * {@link NotificationCompat.DEFAULT_LIGHTS}.
      */
     int getDefaults() {
-        int defaults = options.optInt("androidDefaults");
+        return defaults;
+    }
 
-        if (isAndroidChannelEnableVibration()) {
+    /**
+     * Calculates the defaults, see {@link #getDefaults()}.
+     */
+    private static int parseDefaults(int defaults, boolean enableVibration, String sound, Object led) {
+        if (enableVibration) {
             defaults |= NotificationCompat.DEFAULT_VIBRATE;
         } else {
             defaults &= NotificationCompat.DEFAULT_VIBRATE;
         }
 
-        if (getSound() == null) {
+        if (sound == null) {
             defaults |= NotificationCompat.DEFAULT_SOUND;
 
             // No default sound
@@ -685,7 +871,7 @@ public final class Options {
             defaults &= NotificationCompat.DEFAULT_SOUND;
         }
 
-        if (getLed() == null) {
+        if (led == null) {
             defaults |= NotificationCompat.DEFAULT_LIGHTS;
 
             // No default led
@@ -702,7 +888,7 @@ public final class Options {
      * @return {@link NotificationCompat.VISIBILITY_PUBLIC} or {@link NotificationCompat.VISIBILITY_SECRET}
      */
     int getVisibility() {
-        return options.optBoolean("androidLockscreen", true) ? NotificationCompat.VISIBILITY_PUBLIC : NotificationCompat.VISIBILITY_SECRET;
+        return visibility;
     }
 
     /**
@@ -734,7 +920,7 @@ public final class Options {
      * Defaults to true.
      */
     boolean isAndroidShowWhen() {
-        return options.optBoolean("androidShowWhen", true);
+        return androidShowWhen;
     }
 
     /**
@@ -746,7 +932,7 @@ public final class Options {
      * Defaults to false if not set.
      */
     boolean isAndroidUsesChronometer() {
-        return options.optBoolean("androidUsesChronometer", false);
+        return androidUsesChronometer;
     }
 
     /**
@@ -754,7 +940,7 @@ public final class Options {
      * Defaults to null if not set.
      */
     JSONObject getProgressBar() {
-        return options.optJSONObject("androidProgressBar");
+        return progressBar;
     }
 
     /**
@@ -763,7 +949,7 @@ public final class Options {
      * @return 0 by default.
      */
     int getProgressValue() {
-        return getProgressBar().optInt("value", 0);
+        return progressValue;
     }
 
     /**
@@ -772,7 +958,7 @@ public final class Options {
      * @return 100 by default.
      */
     int getProgressMaxValue() {
-        return getProgressBar().optInt("maxValue", 100);
+        return progressMaxValue;
     }
 
     /**
@@ -780,7 +966,7 @@ public final class Options {
      * @return false by default.
      */
     boolean isProgressIndeterminate() {
-        return getProgressBar().optBoolean("indeterminate", false);
+        return progressIndeterminate;
     }
 
     /**
@@ -792,7 +978,7 @@ public final class Options {
      * Defaults to null if not set.
      */
     String getSummary() {
-        return options.optString("androidSummary", null);
+        return summary;
     }
 
     /**
@@ -807,7 +993,9 @@ public final class Options {
         List<Bitmap> bitmaps = new ArrayList<Bitmap>();
 
         for (int index = 0; index < attachments.length(); index++) {
-            Bitmap assetBitmap = assetUtil.getBitmap(attachments.optString(index));
+            Bitmap assetBitmap = assetUtil.getBitmap(
+                attachments.optString(index),
+                AssetUtil.BITMAP_TRANSFORM_NONE, AssetUtil.BITMAP_SIZE_BIG_PICTURE, getAndroidBitmapConfig());
 
             if (assetBitmap == null) continue;
 
@@ -823,7 +1011,7 @@ public final class Options {
      * Gets the actions group id or null if not set.
      */
     public ActionGroup getActionsGroup() {
-        return ActionGroup.get(context, options.optString("actions", null));
+        return ActionGroup.get(context, actionsGroupId);
     }
 
     /**
@@ -842,8 +1030,10 @@ public final class Options {
             JSONObject messageJSON = messagesJSONArray.optJSONObject(i);
 
             // Use person icon if available
-            Bitmap personBitmap = assetUtil.getBitmap(messageJSON.optString("personIcon", null));
-            IconCompat personIcon = personBitmap != null ? IconCompat.createWithBitmap(AssetUtil.getCircleBitmap(personBitmap)) : null;
+            Bitmap personBitmap = assetUtil.getBitmap(
+                messageJSON.optString("personIcon", null),
+                AssetUtil.BITMAP_TRANSFORM_CIRCLE, AssetUtil.BITMAP_SIZE_LARGE_ICON, getAndroidBitmapConfig());
+            IconCompat personIcon = personBitmap != null ? IconCompat.createWithBitmap(personBitmap) : null;
 
             messages[i] = new MessagingStyle.Message(
                 messageJSON.optString("message"),
@@ -864,7 +1054,7 @@ public final class Options {
      * Defaults to null if not set.
      */
     String getTitleCount() {
-        return options.optString("androidTitleCount", null);
+        return titleCount;
     }
 
     /**
@@ -872,18 +1062,54 @@ public final class Options {
      * Defaults to false if not set.
      */
     public boolean isOnlyAlertOnce(){
-        return options.optBoolean("androidOnlyAlertOnce", false);
+        return onlyAlertOnce;
     }
 
     /**
      * Defaults to {@link AlarmManager.RTC_WAKEUP} if not set.
      */
     public int getAndroidAlarmType() {
-        return options.optInt("androidAlarmType", AlarmManager.RTC_WAKEUP);
+        return androidAlarmType;
     }
 
     public boolean isAndroidAllowWhileIdle() {
-        return options.optBoolean("androidAllowWhileIdle", false);
+        return androidAllowWhileIdle;
+    }
+
+    /**
+     * Config to decode images without alpha channel, like JPEG, for the large icon,
+     * attachments and person icons. Images with alpha channel are always decoded
+     * with {@link Bitmap.Config#ARGB_8888}.
+     * Defaults to {@link Bitmap.Config#RGB_565} if not set, which needs half of the memory.
+     */
+    Bitmap.Config getAndroidBitmapConfig() {
+        return androidBitmapConfig;
+    }
+
+    /**
+     * If the trigger should be put into the {@link AlarmQueue} instead of
+     * registering an own alarm in the AlarmManager.
+     * Defaults to false if not set.
+     */
+    public boolean isAndroidAlarmQueue() {
+        return androidAlarmQueue;
+    }
+
+    /**
+     * Milliseconds after the trigger date, in which the notification may be delivered,
+     * so it can share a wakeup with other notifications. Defaults to 0 if not set.
+     */
+    public long getAndroidDeliveryWindow() {
+        return androidDeliveryWindow;
+    }
+
+    /**
+     * If the trigger is put into the {@link AlarmQueue}. Notifications with a delivery
+     * window are always queued, also if androidAlarmQueue is false, because the queue
+     * groups their wakeups.
+     */
+    public boolean usesAlarmQueue() {
+        return androidAlarmQueue || androidDeliveryWindow > 0;
     }
 
     /**
@@ -891,13 +1117,59 @@ public final class Options {
      * Defaults to true if not set.
      */
     public boolean isAndroidWakeUpScreen() {
-        return options.optBoolean("androidWakeUpScreen", true);
+        return androidWakeUpScreen;
+    }
+
+    /**
+     * Number of occurrences of a series, see {@link #getOccurrenceOptions(int)}.
+     * @return 0 if androidSeries is not set.
+     */
+    public int getAndroidSeriesLength() {
+        return androidSeries != null ? androidSeries.length() : 0;
+    }
+
+    /**
+     * Options of an occurrence of a series. An entry of androidSeries can be a String,
+     * which overrides the text, or an object, which overrides the {@link #SERIES_PROPERTIES}.
+     * @param occurrence Occurrence of the trigger, starting at 1.
+     * @return These options, if androidSeries is not set or has no entry for the occurrence.
+     */
+    public Options getOccurrenceOptions(int occurrence) {
+        if (androidSeries == null || occurrence < 1 || occurrence > androidSeries.length()) return this;
+
+        Object overrides = androidSeries.opt(occurrence - 1);
+        if (!(overrides instanceof String) && !(overrides instanceof JSONObject)) return this;
+
+        try {
+            // Shallow copy, the overridden values are only replaced
+            JSONObject occurrenceJSON = new JSONObject();
+            Iterator<String> keys = options.keys();
+
+            while (keys.hasNext()) {
+                String key = keys.next();
+                occurrenceJSON.put(key, options.get(key));
+            }
+
+            if (overrides instanceof String) {
+                occurrenceJSON.put("text", overrides);
+
+            } else {
+                for (String key : SERIES_PROPERTIES) {
+                    if (((JSONObject) overrides).has(key)) occurrenceJSON.put(key, ((JSONObject) overrides).get(key));
+                }
+            }
+
+            return new Options(context, occurrenceJSON, false);
+        } catch (JSONException exception) {
+            Log.e(TAG, "Could not apply androidSeries, occurrence=" + occurrence, exception);
+            return this;
+        }
     }
 
     /**
      * @return Returns the hex code without a leading #
      */
-    private String hexWithoutHash(String hex) {
+    private static String hexWithoutHash(String hex) {
         return (hex.charAt(0) == '#') ? hex.substring(1) : hex;
     }
 
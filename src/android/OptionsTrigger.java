@@ -21,44 +21,112 @@
 
 package de.appplant.cordova.plugin.localnotification;
 
+import org.json.JSONArray;
 import org.json.JSONObject;
 
+/**
+ * The trigger property of the options. The values are read once on construction.
+ */
 public class OptionsTrigger {
+
+    /**
+     * Missed occurrences of a repeating trigger are shown as one notification.
+     */
+    public static final String CATCH_UP_ONCE = "once";
+
+    /**
+     * Missed occurrences of a repeating trigger are shown as one notification,
+     * which shows the number of missed occurrences.
+     */
+    public static final String CATCH_UP_SUMMARY = "summary";
+
+    /**
+     * Missed occurrences of a repeating trigger are not shown.
+     */
+    public static final String CATCH_UP_DROP = "drop";
     
-    private JSONObject triggerJSON;
+    private final JSONObject triggerJSON;
+
+    private final boolean hasAt;
+    private final boolean hasIn;
+    private final boolean hasEvery;
+    private final boolean hasFirstAt;
+    private final boolean hasAfter;
+    private final boolean hasCount;
+    private final boolean hasBefore;
+    private final long at;
+    private final int in;
+    private final String unit;
+    private final long firstAt;
+    private final long after;
+    private final int count;
+    private final Object every;
+    private final long before;
+    private final String catchUp;
+    private final JSONArray except;
 
     public OptionsTrigger(JSONObject triggerJSON) {
+        // No trigger set, use an empty one, so the getters return their defaults
+        if (triggerJSON == null) triggerJSON = new JSONObject();
+
         this.triggerJSON = triggerJSON;
+        this.hasAt = triggerJSON.has("at");
+        this.hasIn = triggerJSON.has("in");
+        this.hasEvery = triggerJSON.has("every");
+        this.hasFirstAt = triggerJSON.has("firstAt");
+        this.hasAfter = triggerJSON.has("after");
+        this.hasCount = triggerJSON.has("count");
+        this.hasBefore = triggerJSON.has("before");
+        this.at = triggerJSON.optLong("at", 0);
+        this.in = triggerJSON.optInt("in", 0);
+        this.unit = triggerJSON.optString("unit", null);
+        this.firstAt = triggerJSON.optLong("firstAt", 0);
+        this.after = triggerJSON.optLong("after", 0);
+        this.count = triggerJSON.optInt("count", -1);
+        this.every = triggerJSON.opt("every");
+        this.before = triggerJSON.optLong("before", 0);
+        this.catchUp = triggerJSON.optString("catchUp", CATCH_UP_ONCE);
+        this.except = triggerJSON.optJSONArray("except");
     }
 
     public boolean has(String key) {
+        switch (key) {
+            case "at": return hasAt;
+            case "in": return hasIn;
+            case "every": return hasEvery;
+            case "firstAt": return hasFirstAt;
+            case "after": return hasAfter;
+            case "count": return hasCount;
+            case "before": return hasBefore;
+        }
+
         return triggerJSON.has(key);
     }
 
     public long getAt() {
-        return triggerJSON.optLong("at", 0);
+        return at;
     }
 
     public int getIn() {
-        return triggerJSON.optInt("in", 0);
+        return in;
     }
 
     public String getUnit() {
-        return triggerJSON.optString("unit", null);
+        return unit;
     }
 
     /**
      * Only for repeating notifications, when the first notification should be triggered.
      */
     public long getFirstAt() {
-        return triggerJSON.optLong("firstAt", 0);
+        return firstAt;
     }
 
     /**
      * Only for repeating notifications, when the first notification should be triggered.
      */
     public long getAfter() {
-        return triggerJSON.optLong("after", 0);
+        return after;
     }
 
     /**
@@ -66,32 +134,50 @@ public class OptionsTrigger {
      * @return
      */
     public int getCount() {
-        return triggerJSON.optInt("count", -1);
+        return count;
     }
 
     /**
      * Can be a {@link String} or {@link JSONObject}.
      */
     public Object getEvery() {
-        return triggerJSON.opt("every");
+        return every;
     }
 
     /**
      * Gets trigger.every as {@link String}. If trigger.every is a {@link JSONObject}, it returns null
      */
     public String getEveryAsString() {
-        return getEvery() instanceof String ? (String) getEvery() : null;
+        return every instanceof String ? (String) every : null;
     }
 
     /**
      * Gets trigger.every as {@link JSONObject}. If trigger.every is a {@link String}, it returns null
      */
     public JSONObject getEveryAsJSONObject() {
-        return getEvery() instanceof JSONObject ? (JSONObject) getEvery() : null;
+        return every instanceof JSONObject ? (JSONObject) every : null;
     }
 
     public long getBefore() {
-        return triggerJSON.optLong("before", 0);
+        return before;
+    }
+
+    /**
+     * How missed occurrences of a repeating trigger are handled, e.g. after the
+     * device was turned off. One of {@link #CATCH_UP_ONCE}, {@link #CATCH_UP_SUMMARY}
+     * or {@link #CATCH_UP_DROP}. Defaults to {@link #CATCH_UP_ONCE} if not set.
+     */
+    public String getCatchUp() {
+        return catchUp;
+    }
+
+    /**
+     * Dates or date ranges, on which a repeating notification should not be triggered.
+     * Each entry is a date in milliseconds or an object like { from: 1735689600000, to: 1736208000000 }.
+     * @return null if not set.
+     */
+    public JSONArray getExcept() {
+        return except;
     }
 
     public JSONObject getJSON() {
@@ -101,4 +187,4 @@ public class OptionsTrigger {
     public String toString() {
         return triggerJSON.toString();
     }
-}
\ No newline at end of file
+}
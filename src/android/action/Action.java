@@ -159,7 +159,7 @@ public class Action {
             getRemoteInputData(intent));
 
         // Clear notification from statusbar if it should not be ongoing
-        // This will also remove the notification from the SharedPreferences
+        // This will also remove the notification from the store
         // if it is the last one
         if (!notification.getOptions().isAndroidOngoing()) {
             // A clear does not work on notifications with input fields:
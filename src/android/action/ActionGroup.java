@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import de.appplant.cordova.plugin.localnotification.Manager;
+import de.appplant.cordova.plugin.localnotification.store.NotificationStore;
 
 public class ActionGroup {
 
@@ -89,37 +90,34 @@ public class ActionGroup {
     }
 
     /**
-     * Stores this action group in the {@link SharedPreferences}.
+     * Stores this action group in the {@link NotificationStore}.
      */
     public void store() {
-        Manager.getSharedPreferences(context).edit()
-            .putString("ACTION_GROUP_" + id, actionsJSONArray.toString())
-            .apply();
+        Manager.getStore(context).putActionGroup(id, actionsJSONArray.toString());
     }
 
     /**
-     * Removes the action group from the {@link SharedPreferences}.
+     * Removes the action group from the {@link NotificationStore}.
      * @param context
      * @param actionGroupId
      */
     public static void remove(Context context, String actionGroupId) {
-        Manager.getSharedPreferences(context).edit()
-            .remove("ACTION_GROUP_" + actionGroupId)
-            .apply();
+        Manager.getStore(context).removeActionGroup(actionGroupId);
     }
 
     /**
      * Gets the action group with the specified actionGroupId from the
-     * {@link SharedPreferences}.
+     * {@link NotificationStore}.
      *
      * @param context The application context.
      * @param actionGroupId The id of the action group to get.
      *
-     * @return The restored action group from {@link SharedPreferences} or <code>null</code> if not found.
+     * @return The restored action group from {@link NotificationStore} or <code>null</code> if not found.
      */
     public static ActionGroup get(Context context, String actionGroupId) {
-        String actionsJSON = Manager.getSharedPreferences(context)
-            .getString("ACTION_GROUP_" + actionGroupId, null);
+        if (actionGroupId == null) return null;
+
+        String actionsJSON = Manager.getStore(context).getActionGroup(actionGroupId);
 
         if (actionsJSON == null) return null;
 
@@ -33,7 +33,7 @@ import de.appplant.cordova.plugin.localnotification.Notification;
 /**
  * The clear intent receiver is triggered when the user clears a
  * notification manually. It removes the notification from the
- * SharedPreferences if it was the last onex to trigger.
+ * store if it was the last onex to trigger.
  */
 public class ClearReceiver extends BroadcastReceiver {
 
@@ -46,15 +46,18 @@ public class ClearReceiver extends BroadcastReceiver {
      */
     @Override
     public void onReceive(Context context, Intent intent) {
-        Notification notification = Notification.getFromSharedPreferences(context, intent.getExtras().getInt(Notification.EXTRA_ID));
+        Notification notification = Notification.getFromStore(context, intent.getExtras().getInt(Notification.EXTRA_ID));
 
-        // Notification not found for id in SharedPreferences
+        // Notification not found for id in store
         if (notification == null) {
             Log.w(TAG, "Notification not found for id, doing nothing, id=" + intent.getExtras().getInt(Notification.EXTRA_ID));
             return;
         }
 
-        // Will remove the notification from SharedPreferences if it is the last one
+        // The event is fired for the cleared occurrence
+        notification.setEventOccurrence(intent.getIntExtra(Notification.EXTRA_OCCURRENCE, 0));
+
+        // Will remove the notification from the store if it is the last one
         notification.clear();
     }
 }
@@ -27,12 +27,12 @@ import android.app.AlarmManager;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
+import android.os.SystemClock;
 import android.util.Log;
 
-import java.util.List;
-
 import de.appplant.cordova.plugin.localnotification.Manager;
-import de.appplant.cordova.plugin.localnotification.Notification;
+import de.appplant.cordova.plugin.localnotification.util.AssetUtil;
+import de.appplant.cordova.plugin.localnotification.util.BackgroundExecutor;
 
 /**
  * This class is triggered, when the system has cleared the alarms and notifications,
@@ -43,13 +43,18 @@ public class RestoreReceiver extends BroadcastReceiver {
 
     public static final String TAG = "RestoreReceiver";
 
+    // Intent action of the follow-up, which restores the notifications,
+    // which were not restored by the deadline, see Manager#restorePending
+    public static final String ACTION_RESTORE_PENDING = "NOTIFICATION_RESTORE_PENDING";
+
     /**
      * Called when alarms and notifications need to be restored.
+     * The restoring is done in the background, see {@link Manager#restore(long)}.
      * @param context Application context
      * @param intent Received intent with content data
      */
     @Override
-    public void onReceive(Context context, Intent intent) {
+    public void onReceive(final Context context, Intent intent) {
         Log.d(TAG, "Received action: " + intent.getAction());
 
         // The device was booted and is unlocked
@@ -59,12 +64,26 @@ public class RestoreReceiver extends BroadcastReceiver {
             // The app is granted the SCHEDULE_EXACT_ALARM permission
             intent.getAction().equals(AlarmManager.ACTION_SCHEDULE_EXACT_ALARM_PERMISSION_STATE_CHANGED)) {
 
-            List<Notification> notifications = new Manager(context).getNotificationsFromSharedPreferences();
-            Log.d(TAG, "Restoring notifications, count: " + notifications.size());
+            final boolean appUpdated = intent.getAction().equals(Intent.ACTION_MY_PACKAGE_REPLACED);
+            final long deadline = SystemClock.uptimeMillis() + BackgroundExecutor.BROADCAST_DEADLINE_MILLIS;
+
+            BackgroundExecutor.goAsync(this, TAG + " " + intent.getAction(), new Runnable() {
+                public void run() {
+                    // The assets could have changed by the update
+                    if (appUpdated) new AssetUtil(context).clearAssetCopies();
+
+                    new Manager(context).restore(deadline);
+                }
+            });
+
+        } else if (intent.getAction().equals(ACTION_RESTORE_PENDING)) {
+            final long deadline = SystemClock.uptimeMillis() + BackgroundExecutor.BROADCAST_DEADLINE_MILLIS;
 
-            for (Notification notification : notifications) {
-                notification.schedule();
-            }
+            BackgroundExecutor.goAsync(this, TAG + " " + intent.getAction(), new Runnable() {
+                public void run() {
+                    new Manager(context).restorePending(deadline);
+                }
+            });
         }
     }
 }
@@ -25,9 +25,12 @@ package de.appplant.cordova.plugin.localnotification.receiver;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
+import android.os.SystemClock;
 import android.util.Log;
 
+import de.appplant.cordova.plugin.localnotification.AlarmQueue;
 import de.appplant.cordova.plugin.localnotification.Notification;
+import de.appplant.cordova.plugin.localnotification.util.BackgroundExecutor;
 
 /**
  * The alarm receiver is triggered when a scheduled alarm is fired. This class
@@ -40,17 +43,38 @@ public class TriggerReceiver extends BroadcastReceiver {
     public static final String TAG = "TriggerReceiver";
 
     /**
-     * Called when an alarm was triggered.
+     * Called when an alarm was triggered. The notifications are
+     * shown in the background to not block the main thread.
      * @param context Application context
      * @param intent Received intent with content data
      */
     @Override
-    public void onReceive(Context context, Intent intent) {
+    public void onReceive(final Context context, final Intent intent) {
         Log.d(TAG, "Received action: " + intent.getAction());
 
-        Notification notification = Notification.getFromSharedPreferences(context, intent.getExtras().getInt(Notification.EXTRA_ID));
+        final long deadline = SystemClock.uptimeMillis() + BackgroundExecutor.BROADCAST_DEADLINE_MILLIS;
 
-        // Notification not found for id in SharedPreferences
+        BackgroundExecutor.goAsync(this, TAG + " " + intent.getAction(), new Runnable() {
+            public void run() {
+                handleTrigger(context, intent, deadline);
+            }
+        });
+    }
+
+    /**
+     * Shows the triggered notification or all due notifications of the queue.
+     * @param deadline Uptime in milliseconds until the work should be done.
+     */
+    private void handleTrigger(Context context, Intent intent, long deadline) {
+        // Alarm of the queue, show all due notifications
+        if (AlarmQueue.isQueueIntent(intent)) {
+            AlarmQueue.drain(context, deadline);
+            return;
+        }
+
+        Notification notification = Notification.getFromStore(context, intent.getExtras().getInt(Notification.EXTRA_ID));
+
+        // Notification not found for id in store
         if (notification == null) {
             Log.w(TAG, "Notification not found for id, doing nothing, id=" + intent.getExtras().getInt(Notification.EXTRA_ID));
             return;
@@ -60,10 +84,10 @@ public class TriggerReceiver extends BroadcastReceiver {
         notification.show(false);
 
         // Schedule next notification if available. The notification
-        // will not be removed from the SharedPreferences, if there is no
+        // will not be removed from the store, if there is no
         // next trigger. So the ClickActivity
         // and ClearReceiver can still read the notification data. They
-        // will remove the notification from the SharedPreferences if they are
+        // will remove the notification from the store if they are
         // executed. A notification can ony be cleared or clicked.
         notification.scheduleNext();
     }
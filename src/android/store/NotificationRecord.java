@@ -0,0 +1,104 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification.store;
+
+/**
+ * A stored notification. Holds the options as JSON string and the state
+ * of the trigger, which is needed to restore the notification.
+ */
+public final class NotificationRecord {
+
+    private final int id;
+
+    private final String channelId;
+
+    private final String group;
+
+    private final int occurrence;
+
+    private final long triggerBaseDate;
+
+    private final long triggerDate;
+
+    private final String options;
+
+    /**
+     * @param id Notification id.
+     * @param channelId Android channel id of the notification.
+     * @param group Group of the notification, can be null.
+     * @param occurrence Occurrence of the trigger.
+     * @param triggerBaseDate Base date of the trigger in milliseconds.
+     * @param triggerDate Calculated trigger date in milliseconds.
+     * @param options Notification options as JSON string.
+     */
+    public NotificationRecord(int id, String channelId, String group, int occurrence,
+        long triggerBaseDate, long triggerDate, String options) {
+        this.id = id;
+        this.channelId = channelId;
+        this.group = group;
+        this.occurrence = occurrence;
+        this.triggerBaseDate = triggerBaseDate;
+        this.triggerDate = triggerDate;
+        this.options = options;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getChannelId() {
+        return channelId;
+    }
+
+    /**
+     * Group of the notification or null if not set.
+     */
+    public String getGroup() {
+        return group;
+    }
+
+    public int getOccurrence() {
+        return occurrence;
+    }
+
+    public long getTriggerBaseDate() {
+        return triggerBaseDate;
+    }
+
+    public long getTriggerDate() {
+        return triggerDate;
+    }
+
+    /**
+     * The trigger state of this record.
+     */
+    public NotificationState getState() {
+        return new NotificationState(id, occurrence, triggerBaseDate, triggerDate);
+    }
+
+    /**
+     * Notification options as JSON string.
+     */
+    public String getOptions() {
+        return options;
+    }
+}
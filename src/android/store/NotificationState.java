@@ -0,0 +1,67 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification.store;
+
+/**
+ * The mutable trigger state of a stored notification. Changes with every
+ * occurrence, while the options of the notification stay the same, so
+ * it is stored separately from the options.
+ */
+public final class NotificationState {
+
+    private final int id;
+
+    private final int occurrence;
+
+    private final long triggerBaseDate;
+
+    private final long triggerDate;
+
+    /**
+     * @param id Notification id.
+     * @param occurrence Occurrence of the trigger.
+     * @param triggerBaseDate Base date of the trigger in milliseconds.
+     * @param triggerDate Calculated trigger date in milliseconds.
+     */
+    public NotificationState(int id, int occurrence, long triggerBaseDate, long triggerDate) {
+        this.id = id;
+        this.occurrence = occurrence;
+        this.triggerBaseDate = triggerBaseDate;
+        this.triggerDate = triggerDate;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getOccurrence() {
+        return occurrence;
+    }
+
+    public long getTriggerBaseDate() {
+        return triggerBaseDate;
+    }
+
+    public long getTriggerDate() {
+        return triggerDate;
+    }
+}
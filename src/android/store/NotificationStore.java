@@ -0,0 +1,180 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification.store;
+
+import java.util.List;
+
+/**
+ * Persistence of notifications and action groups. Notifications are stored
+ * to restore them upon device reboot, app restart, retrieve notifications, etc.
+ * Implementations must be thread safe.
+ */
+public interface NotificationStore {
+
+    /**
+     * Ids of all stored notifications, sorted ascending.
+     */
+    int[] getIds();
+
+    /**
+     * Ids of the stored notifications of an Android channel, sorted ascending.
+     */
+    int[] getIdsByChannel(String channelId);
+
+    /**
+     * Ids of the stored notifications of a group, sorted ascending.
+     */
+    int[] getIdsByGroup(String group);
+
+    /**
+     * Ids of the stored notifications, which trigger next in a time range,
+     * ordered by their trigger date, the earliest first.
+     * @param from Start of the range in milliseconds, inclusive.
+     * @param to End of the range in milliseconds, inclusive.
+     * @param limit Maximum number of ids or 0 for no limit.
+     */
+    int[] getIdsByTriggerDate(long from, long to, int limit);
+
+    /**
+     * Gets a stored notification.
+     * @return null if no notification is stored for the id.
+     */
+    NotificationRecord get(int notificationId);
+
+    /**
+     * All stored notifications, ordered by their trigger date, the earliest first.
+     */
+    List<NotificationRecord> getAll();
+
+    /**
+     * Options of all stored notifications as JSON strings, ordered by the notification id.
+     * The options are returned as stored, without parsing them.
+     */
+    List<String> getAllOptions();
+
+    /**
+     * Options of stored notifications as JSON strings, in the order of the given ids.
+     * The options are returned as stored, without parsing them.
+     * Ids of notifications, which are not stored, are skipped.
+     */
+    List<String> getOptions(int[] notificationIds);
+
+    /**
+     * Stores a notification. An already stored notification with the same id will be replaced.
+     */
+    void put(NotificationRecord record);
+
+    /**
+     * Stores multiple notifications in one transaction.
+     */
+    void putAll(List<NotificationRecord> records);
+
+    /**
+     * Updates only the trigger state of a stored notification, the stored options
+     * stay untouched. Nothing is stored, if the notification is not stored.
+     */
+    void putState(NotificationState state);
+
+    /**
+     * Updates the trigger states of multiple notifications in one transaction,
+     * see {@link #putState(NotificationState)}.
+     */
+    void putStates(List<NotificationState> states);
+
+    /**
+     * Removes a stored notification with its trigger state and its queued alarm, if any.
+     */
+    void remove(int notificationId);
+
+    /**
+     * Adds the trigger of a notification to the alarm queue. An already
+     * queued trigger of the same notification will be replaced.
+     */
+    void putQueuedAlarm(QueuedAlarm queuedAlarm);
+
+    /**
+     * Adds multiple triggers to the alarm queue in one transaction.
+     */
+    void putQueuedAlarms(List<QueuedAlarm> queuedAlarms);
+
+    /**
+     * Notification ids of the queued alarms with a trigger date up to the given date,
+     * ordered by trigger date. The alarms stay in the queue, until they are removed by
+     * {@link #removeDueQueuedAlarm(int, long)} or replaced by the next trigger.
+     * @param triggerDate Date in milliseconds.
+     */
+    int[] getDueQueuedAlarms(long triggerDate);
+
+    /**
+     * Removes the queued alarm of a notification, if its trigger date is not after
+     * the given date. A trigger, which was already replaced by the next one, is kept.
+     * @param triggerDate Date in milliseconds.
+     */
+    void removeDueQueuedAlarm(int notificationId, long triggerDate);
+
+    /**
+     * Sets the trigger date of the queued alarm of a notification, e.g. to retry
+     * a trigger later on. Nothing is changed, if the notification has no queued alarm.
+     * @param triggerDate Date in milliseconds.
+     */
+    void postponeQueuedAlarm(int notificationId, long triggerDate);
+
+    /**
+     * The next alarm for each combination of alarm type and allowWhileIdle.
+     * These are the alarms, which have to be registered in the AlarmManager.
+     * The earliest queued triggers, whose delivery windows overlap, are grouped
+     * into one alarm. Its trigger date is the latest trigger date of the group
+     * and its delivery window ends with the earliest end of the windows, so
+     * all triggers of the group are due, when the alarm goes off.
+     * Triggers, which are allowed while idle, are not grouped, because their
+     * alarm is registered without a window, so the earliest one is returned.
+     */
+    List<QueuedAlarm> getNextQueuedAlarms();
+
+    /**
+     * Gets a value stored about the store itself, like the
+     * plugin version, the stored options were converted to.
+     * @return null if no value is stored for the key.
+     */
+    String getMeta(String key);
+
+    /**
+     * Stores a value about the store itself, see {@link #getMeta(String)}.
+     */
+    void putMeta(String key, String value);
+
+    /**
+     * Gets the actions of an action group as JSON string.
+     * @return null if the action group is not stored.
+     */
+    String getActionGroup(String actionGroupId);
+
+    /**
+     * Stores the actions of an action group as JSON string.
+     */
+    void putActionGroup(String actionGroupId, String actionsJSON);
+
+    /**
+     * Removes a stored action group.
+     */
+    void removeActionGroup(String actionGroupId);
+}
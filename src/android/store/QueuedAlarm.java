@@ -0,0 +1,92 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification.store;
+
+/**
+ * A pending trigger in the alarm queue. Queued notifications do not register
+ * an own alarm, they share one alarm per alarm type, which is set to the
+ * earliest trigger date in the queue. A trigger can have a delivery window,
+ * in which it may be delivered after the trigger date, so triggers with
+ * overlapping windows can share one wakeup.
+ */
+public final class QueuedAlarm {
+
+    private final int notificationId;
+
+    private final long triggerDate;
+
+    private final int alarmType;
+
+    private final boolean allowWhileIdle;
+
+    private final long deliveryWindow;
+
+    /**
+     * @param notificationId Id of the queued notification.
+     * @param triggerDate Trigger date in milliseconds.
+     * @param alarmType Alarm type like {@link android.app.AlarmManager#RTC_WAKEUP}.
+     * @param allowWhileIdle If the alarm is allowed to execute in doze mode.
+     */
+    public QueuedAlarm(int notificationId, long triggerDate, int alarmType, boolean allowWhileIdle) {
+        this(notificationId, triggerDate, alarmType, allowWhileIdle, 0);
+    }
+
+    /**
+     * @param notificationId Id of the queued notification.
+     * @param triggerDate Trigger date in milliseconds.
+     * @param alarmType Alarm type like {@link android.app.AlarmManager#RTC_WAKEUP}.
+     * @param allowWhileIdle If the alarm is allowed to execute in doze mode.
+     * @param deliveryWindow Milliseconds after the trigger date, in which the trigger
+     * may be delivered. 0 if it should be delivered at the trigger date.
+     */
+    public QueuedAlarm(int notificationId, long triggerDate, int alarmType, boolean allowWhileIdle,
+        long deliveryWindow) {
+        this.notificationId = notificationId;
+        this.triggerDate = triggerDate;
+        this.alarmType = alarmType;
+        this.allowWhileIdle = allowWhileIdle;
+        this.deliveryWindow = Math.max(0, deliveryWindow);
+    }
+
+    public int getNotificationId() {
+        return notificationId;
+    }
+
+    public long getTriggerDate() {
+        return triggerDate;
+    }
+
+    public int getAlarmType() {
+        return alarmType;
+    }
+
+    public boolean isAllowWhileIdle() {
+        return allowWhileIdle;
+    }
+
+    /**
+     * Milliseconds after the trigger date, in which the trigger may be delivered.
+     */
+    public long getDeliveryWindow() {
+        return deliveryWindow;
+    }
+}
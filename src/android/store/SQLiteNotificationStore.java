@@ -0,0 +1,599 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification.store;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.util.Log;
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.appplant.cordova.plugin.localnotification.Manager;
+import de.appplant.cordova.plugin.localnotification.Options;
+
+/**
+ * Stores notifications in a SQLite database with one row per notification.
+ * In contrast to the SharedPreferences, which rewrites the whole file on every
+ * change, a write only costs the size of the changed rows. The options and the
+ * trigger state of a notification are stored in separate tables, as the state
+ * changes with every occurrence, while the options are mostly written only once.
+ */
+public final class SQLiteNotificationStore extends SQLiteOpenHelper implements NotificationStore {
+
+    private static final String TAG = "SQLiteNotificationStore";
+
+    private static final String DATABASE_NAME = "localnotifications.db";
+
+    // Add an upgrade step to onUpgrade for each version, which is released
+    private static final int DATABASE_VERSION = 1;
+
+    private static final String TABLE_NOTIFICATIONS = "notifications";
+
+    private static final String TABLE_NOTIFICATION_STATES = "notification_states";
+
+    private static final String TABLE_ACTION_GROUPS = "action_groups";
+
+    private static final String TABLE_ALARM_QUEUE = "alarm_queue";
+
+    private static final String TABLE_META = "meta";
+
+    // Maximum number of ids in one query, SQLite allows 999 bound arguments
+    private static final int MAX_QUERY_IDS = 500;
+
+    // Selects the columns read by readRecord, the state is joined to the options
+    private static final String SELECT_RECORDS =
+        "SELECT n.id, n.channel_id, n.group_id, s.occurrence, s.trigger_base_date, s.trigger_date, n.options" +
+        " FROM " + TABLE_NOTIFICATIONS + " n LEFT JOIN " + TABLE_NOTIFICATION_STATES + " s ON s.id = n.id";
+
+    private static SQLiteNotificationStore instance = null;
+
+    private final Context context;
+
+    // Data read from the SharedPreferences on creation of the database.
+    // The SharedPreferences are cleaned up after the creation was committed.
+    private SharedPreferencesMigration sharedPreferencesMigration = null;
+
+    private SQLiteNotificationStore(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this.context = context;
+        // Allows reads in parallel to writes and makes commits cheaper
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    /**
+     * Gets the shared instance of the store.
+     */
+    public static synchronized SQLiteNotificationStore getInstance(Context context) {
+        if (instance == null) instance = new SQLiteNotificationStore(context.getApplicationContext());
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        // The trigger state changes with every occurrence,
+        // so it is stored apart from the options
+        db.execSQL("CREATE TABLE " + TABLE_NOTIFICATIONS + " (" +
+            "id INTEGER PRIMARY KEY, " +
+            "channel_id TEXT, " +
+            "group_id TEXT, " +
+            "options TEXT NOT NULL)");
+
+        // Notifications are looked up by channel and group
+        db.execSQL("CREATE INDEX notifications_channel_id ON " + TABLE_NOTIFICATIONS + " (channel_id)");
+        db.execSQL("CREATE INDEX notifications_group_id ON " + TABLE_NOTIFICATIONS + " (group_id)");
+
+        db.execSQL("CREATE TABLE " + TABLE_NOTIFICATION_STATES + " (" +
+            "id INTEGER PRIMARY KEY, " +
+            "occurrence INTEGER NOT NULL DEFAULT 0, " +
+            "trigger_base_date INTEGER NOT NULL DEFAULT 0, " +
+            "trigger_date INTEGER NOT NULL DEFAULT 0)");
+
+        // Notifications are read in the order they trigger and looked up by a time range
+        db.execSQL("CREATE INDEX notification_states_trigger_date ON " +
+            TABLE_NOTIFICATION_STATES + " (trigger_date)");
+
+        db.execSQL("CREATE TABLE " + TABLE_ACTION_GROUPS + " (" +
+            "id TEXT PRIMARY KEY, " +
+            "actions TEXT NOT NULL)");
+
+        // The queue is read ordered by the trigger date
+        db.execSQL("CREATE TABLE " + TABLE_ALARM_QUEUE + " (" +
+            "id INTEGER PRIMARY KEY, " +
+            "trigger_date INTEGER NOT NULL, " +
+            "alarm_type INTEGER NOT NULL, " +
+            "allow_while_idle INTEGER NOT NULL, " +
+            "delivery_window INTEGER NOT NULL DEFAULT 0)");
+
+        db.execSQL("CREATE INDEX alarm_queue_trigger_date ON " + TABLE_ALARM_QUEUE + " (trigger_date)");
+
+        // Values about the store itself
+        db.execSQL("CREATE TABLE " + TABLE_META + " (" +
+            "name TEXT PRIMARY KEY, " +
+            "value TEXT)");
+
+        migrateFromSharedPreferences(db);
+
+        // The migrated options were converted by reading them and new ones
+        // are always stored by the current plugin version
+        ContentValues values = new ContentValues(2);
+        values.put("name", Manager.META_OPTIONS_VERSION);
+        values.put("value", Options.VERSION);
+        db.insertWithOnConflict(TABLE_META, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        Log.d(TAG, "Upgrade database, oldVersion=" + oldVersion + ", newVersion=" + newVersion);
+    }
+
+    @Override
+    public void onOpen(SQLiteDatabase db) {
+        // The creation of the database was committed, so the migrated data
+        // can be removed from the SharedPreferences
+        if (sharedPreferencesMigration != null) {
+            sharedPreferencesMigration.removeMigratedKeys();
+            sharedPreferencesMigration = null;
+        }
+    }
+
+    /**
+     * Moves the notifications and action groups from the SharedPreferences, which were
+     * used until plugin version 1.2.3, into the database. Runs once, when the database is created.
+     */
+    private void migrateFromSharedPreferences(SQLiteDatabase db) {
+        SharedPreferencesMigration migration = new SharedPreferencesMigration(context).read();
+
+        for (NotificationRecord record : migration.getRecords()) {
+            insertOrReplace(db, record);
+        }
+
+        for (String[] actionGroup : migration.getActionGroups()) {
+            insertOrReplaceActionGroup(db, actionGroup[0], actionGroup[1]);
+        }
+
+        Log.d(TAG, "Migrated from SharedPreferences" +
+            ", notifications=" + migration.getRecords().size() +
+            ", actionGroups=" + migration.getActionGroups().size());
+
+        sharedPreferencesMigration = migration;
+    }
+
+    @Override
+    public int[] getIds() {
+        return queryIds("SELECT id FROM " + TABLE_NOTIFICATIONS + " ORDER BY id");
+    }
+
+    @Override
+    public int[] getIdsByChannel(String channelId) {
+        return queryIds("SELECT id FROM " + TABLE_NOTIFICATIONS + " WHERE channel_id = ? ORDER BY id", channelId);
+    }
+
+    @Override
+    public int[] getIdsByGroup(String group) {
+        return queryIds("SELECT id FROM " + TABLE_NOTIFICATIONS + " WHERE group_id = ? ORDER BY id", group);
+    }
+
+    @Override
+    public int[] getIdsByTriggerDate(long from, long to, int limit) {
+        return queryIds("SELECT id FROM " + TABLE_NOTIFICATION_STATES +
+            " WHERE trigger_date BETWEEN ? AND ? ORDER BY trigger_date" +
+            (limit > 0 ? " LIMIT " + limit : ""),
+            String.valueOf(from), String.valueOf(to));
+    }
+
+    /**
+     * Reads the ids of the first column of a query.
+     */
+    private int[] queryIds(String sql, String... selectionArgs) {
+        Cursor cursor = getReadableDatabase().rawQuery(sql, selectionArgs);
+
+        try {
+            int[] ids = new int[cursor.getCount()];
+
+            for (int index = 0; cursor.moveToNext(); index++) {
+                ids[index] = cursor.getInt(0);
+            }
+
+            return ids;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Override
+    public NotificationRecord get(int notificationId) {
+        Cursor cursor = getReadableDatabase().rawQuery(
+            SELECT_RECORDS + " WHERE n.id = ?", new String[] {String.valueOf(notificationId)});
+
+        try {
+            return cursor.moveToFirst() ? readRecord(cursor) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Override
+    public List<NotificationRecord> getAll() {
+        Cursor cursor = getReadableDatabase().rawQuery(
+            SELECT_RECORDS + " ORDER BY s.trigger_date", null);
+
+        try {
+            List<NotificationRecord> records = new ArrayList<NotificationRecord>(cursor.getCount());
+
+            while (cursor.moveToNext()) {
+                records.add(readRecord(cursor));
+            }
+
+            return records;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Override
+    public List<String> getAllOptions() {
+        Cursor cursor = getReadableDatabase().rawQuery(
+            "SELECT options FROM " + TABLE_NOTIFICATIONS + " ORDER BY id", null);
+
+        try {
+            List<String> options = new ArrayList<String>(cursor.getCount());
+
+            while (cursor.moveToNext()) {
+                options.add(cursor.getString(0));
+            }
+
+            return options;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Override
+    public List<String> getOptions(int[] notificationIds) {
+        SparseArray<String> optionsById = new SparseArray<String>(notificationIds.length);
+        SQLiteDatabase db = getReadableDatabase();
+
+        for (int chunkStart = 0; chunkStart < notificationIds.length; chunkStart += MAX_QUERY_IDS) {
+            int chunkEnd = Math.min(chunkStart + MAX_QUERY_IDS, notificationIds.length);
+            String[] whereArgs = new String[chunkEnd - chunkStart];
+            StringBuilder placeholders = new StringBuilder();
+
+            for (int index = chunkStart; index < chunkEnd; index++) {
+                whereArgs[index - chunkStart] = String.valueOf(notificationIds[index]);
+                placeholders.append(index == chunkStart ? "?" : ",?");
+            }
+
+            Cursor cursor = db.rawQuery(
+                "SELECT id, options FROM " + TABLE_NOTIFICATIONS + " WHERE id IN (" + placeholders + ")", whereArgs);
+
+            try {
+                while (cursor.moveToNext()) {
+                    optionsById.put(cursor.getInt(0), cursor.getString(1));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        List<String> options = new ArrayList<String>(optionsById.size());
+
+        for (int notificationId : notificationIds) {
+            String notificationOptions = optionsById.get(notificationId);
+            if (notificationOptions != null) options.add(notificationOptions);
+        }
+
+        return options;
+    }
+
+    @Override
+    public void put(NotificationRecord record) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+
+        try {
+            insertOrReplace(db, record);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void putAll(List<NotificationRecord> records) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+
+        try {
+            for (NotificationRecord record : records) {
+                insertOrReplace(db, record);
+            }
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void putState(NotificationState state) {
+        updateState(getWritableDatabase(), state);
+    }
+
+    @Override
+    public void putStates(List<NotificationState> states) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+
+        try {
+            for (NotificationState state : states) {
+                updateState(db, state);
+            }
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void remove(int notificationId) {
+        SQLiteDatabase db = getWritableDatabase();
+        String[] whereArgs = {String.valueOf(notificationId)};
+        db.beginTransaction();
+
+        try {
+            db.delete(TABLE_NOTIFICATIONS, "id = ?", whereArgs);
+            db.delete(TABLE_NOTIFICATION_STATES, "id = ?", whereArgs);
+            db.delete(TABLE_ALARM_QUEUE, "id = ?", whereArgs);
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public void putQueuedAlarm(QueuedAlarm queuedAlarm) {
+        insertOrReplaceQueuedAlarm(getWritableDatabase(), queuedAlarm);
+    }
+
+    @Override
+    public void putQueuedAlarms(List<QueuedAlarm> queuedAlarms) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+
+        try {
+            for (QueuedAlarm queuedAlarm : queuedAlarms) {
+                insertOrReplaceQueuedAlarm(db, queuedAlarm);
+            }
+
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    @Override
+    public int[] getDueQueuedAlarms(long triggerDate) {
+        return queryIds("SELECT id FROM " + TABLE_ALARM_QUEUE +
+            " WHERE trigger_date <= ? ORDER BY trigger_date", String.valueOf(triggerDate));
+    }
+
+    @Override
+    public void removeDueQueuedAlarm(int notificationId, long triggerDate) {
+        getWritableDatabase().delete(TABLE_ALARM_QUEUE, "id = ? AND trigger_date <= ?",
+            new String[] {String.valueOf(notificationId), String.valueOf(triggerDate)});
+    }
+
+    @Override
+    public void postponeQueuedAlarm(int notificationId, long triggerDate) {
+        ContentValues values = new ContentValues(1);
+        values.put("trigger_date", triggerDate);
+
+        getWritableDatabase().update(TABLE_ALARM_QUEUE, values, "id = ?",
+            new String[] {String.valueOf(notificationId)});
+    }
+
+    @Override
+    public List<QueuedAlarm> getNextQueuedAlarms() {
+        SQLiteDatabase db = getReadableDatabase();
+
+        // SQLite reads delivery_window from the row with the minimum trigger_date
+        Cursor cursor = db.rawQuery(
+            "SELECT alarm_type, allow_while_idle, MIN(trigger_date), delivery_window FROM " + TABLE_ALARM_QUEUE +
+            " GROUP BY alarm_type, allow_while_idle", null);
+
+        try {
+            List<QueuedAlarm> queuedAlarms = new ArrayList<QueuedAlarm>(cursor.getCount());
+
+            while (cursor.moveToNext()) {
+                queuedAlarms.add(getQueuedAlarmGroup(db,
+                    cursor.getInt(0), cursor.getInt(1) == 1, cursor.getLong(2), cursor.getLong(3)));
+            }
+
+            return queuedAlarms;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    /**
+     * Groups the earliest queued triggers of an alarm type, whose delivery windows overlap.
+     * Only triggers in the window of the earliest trigger can be part of the group.
+     * Triggers, which are allowed while idle, are not grouped, see {@link NotificationStore#getNextQueuedAlarms()}.
+     * @param triggerDate Earliest trigger date of the alarm type.
+     * @param deliveryWindow Delivery window of the earliest trigger.
+     * @return The alarm for the group, see {@link #getNextQueuedAlarms()}.
+     */
+    private static QueuedAlarm getQueuedAlarmGroup(SQLiteDatabase db, int alarmType, boolean allowWhileIdle,
+        long triggerDate, long deliveryWindow) {
+        // There is no AlarmManager method to set a window for an alarm, which is allowed
+        // while idle, so grouping would only delay the earliest trigger to the latest one
+        if (allowWhileIdle) return new QueuedAlarm(0, triggerDate, alarmType, true, 0);
+
+        long groupStart = triggerDate;
+        long groupEnd = triggerDate + deliveryWindow;
+
+        if (deliveryWindow > 0) {
+            Cursor cursor = db.rawQuery(
+                "SELECT trigger_date, delivery_window FROM " + TABLE_ALARM_QUEUE +
+                " WHERE alarm_type = ? AND allow_while_idle = ? AND trigger_date > ? AND trigger_date <= ?" +
+                " ORDER BY trigger_date",
+                new String[] {String.valueOf(alarmType), allowWhileIdle ? "1" : "0",
+                    String.valueOf(triggerDate), String.valueOf(groupEnd)});
+
+            try {
+                while (cursor.moveToNext()) {
+                    long nextTriggerDate = cursor.getLong(0);
+
+                    // The window does not overlap with the windows of the group
+                    if (nextTriggerDate > groupEnd) break;
+
+                    groupStart = nextTriggerDate;
+                    groupEnd = Math.min(groupEnd, nextTriggerDate + cursor.getLong(1));
+                }
+            } finally {
+                cursor.close();
+            }
+        }
+
+        // The id is not of interest, the alarm is shared by all queued notifications
+        return new QueuedAlarm(0, groupStart, alarmType, allowWhileIdle, groupEnd - groupStart);
+    }
+
+    @Override
+    public String getMeta(String key) {
+        Cursor cursor = getReadableDatabase().query(
+            TABLE_META, new String[] {"value"},
+            "name = ?", new String[] {key},
+            null, null, null);
+
+        try {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Override
+    public void putMeta(String key, String value) {
+        ContentValues values = new ContentValues(2);
+        values.put("name", key);
+        values.put("value", value);
+
+        getWritableDatabase().insertWithOnConflict(TABLE_META, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    @Override
+    public String getActionGroup(String actionGroupId) {
+        Cursor cursor = getReadableDatabase().query(
+            TABLE_ACTION_GROUPS, new String[] {"actions"},
+            "id = ?", new String[] {actionGroupId},
+            null, null, null);
+
+        try {
+            return cursor.moveToFirst() ? cursor.getString(0) : null;
+        } finally {
+            cursor.close();
+        }
+    }
+
+    @Override
+    public void putActionGroup(String actionGroupId, String actionsJSON) {
+        insertOrReplaceActionGroup(getWritableDatabase(), actionGroupId, actionsJSON);
+    }
+
+    @Override
+    public void removeActionGroup(String actionGroupId) {
+        getWritableDatabase().delete(TABLE_ACTION_GROUPS, "id = ?", new String[] {actionGroupId});
+    }
+
+    /**
+     * Stores the options and the state of a record. Has to be called in a transaction,
+     * so both tables are always written together.
+     */
+    private static void insertOrReplace(SQLiteDatabase db, NotificationRecord record) {
+        ContentValues values = new ContentValues(4);
+        values.put("id", record.getId());
+        values.put("channel_id", record.getChannelId());
+        values.put("group_id", record.getGroup());
+        values.put("options", record.getOptions());
+
+        db.insertWithOnConflict(TABLE_NOTIFICATIONS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        db.insertWithOnConflict(TABLE_NOTIFICATION_STATES, null, getStateValues(record.getState()), SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    /**
+     * Updates the state row of a stored notification. A state row exists for each stored
+     * notification, so a removed notification is not stored again by the update.
+     */
+    private static void updateState(SQLiteDatabase db, NotificationState state) {
+        db.update(TABLE_NOTIFICATION_STATES, getStateValues(state), "id = ?", new String[] {String.valueOf(state.getId())});
+    }
+
+    private static ContentValues getStateValues(NotificationState state) {
+        ContentValues values = new ContentValues(4);
+        values.put("id", state.getId());
+        values.put("occurrence", state.getOccurrence());
+        values.put("trigger_base_date", state.getTriggerBaseDate());
+        values.put("trigger_date", state.getTriggerDate());
+        return values;
+    }
+
+    private static void insertOrReplaceActionGroup(SQLiteDatabase db, String actionGroupId, String actionsJSON) {
+        ContentValues values = new ContentValues(2);
+        values.put("id", actionGroupId);
+        values.put("actions", actionsJSON);
+
+        db.insertWithOnConflict(TABLE_ACTION_GROUPS, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static void insertOrReplaceQueuedAlarm(SQLiteDatabase db, QueuedAlarm queuedAlarm) {
+        ContentValues values = new ContentValues(5);
+        values.put("id", queuedAlarm.getNotificationId());
+        values.put("trigger_date", queuedAlarm.getTriggerDate());
+        values.put("alarm_type", queuedAlarm.getAlarmType());
+        values.put("allow_while_idle", queuedAlarm.isAllowWhileIdle() ? 1 : 0);
+        values.put("delivery_window", queuedAlarm.getDeliveryWindow());
+
+        db.insertWithOnConflict(TABLE_ALARM_QUEUE, null, values, SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    /**
+     * Reads a record from the current cursor position. The cursor
+     * must contain the columns of {@link #SELECT_RECORDS} in that order.
+     */
+    private static NotificationRecord readRecord(Cursor cursor) {
+        return new NotificationRecord(
+            cursor.getInt(0),
+            cursor.getString(1),
+            cursor.getString(2),
+            cursor.getInt(3),
+            cursor.getLong(4),
+            cursor.getLong(5),
+            cursor.getString(6));
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification.store;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import de.appplant.cordova.plugin.localnotification.Manager;
+import de.appplant.cordova.plugin.localnotification.Options;
+
+/**
+ * Reads notifications and action groups, which were stored by plugin versions
+ * up to 1.2.3 in the {@link SharedPreferences}. Each notification was stored
+ * with the keys "{id}", "{id}_occurrence", "{id}_triggerBaseDate" and "{id}_triggerDate".
+ * Action groups were stored with the key "ACTION_GROUP_{id}".
+ */
+final class SharedPreferencesMigration {
+
+    private static final String TAG = "SharedPreferencesMigration";
+
+    private static final String KEY_PREFIX_ACTION_GROUP = "ACTION_GROUP_";
+
+    private final Context context;
+
+    private final SharedPreferences sharedPreferences;
+
+    // Notifications read from the SharedPreferences
+    private final List<NotificationRecord> records = new ArrayList<NotificationRecord>();
+
+    // Action group id to actions JSON string
+    private final List<String[]> actionGroups = new ArrayList<String[]>();
+
+    // Keys which have been read and can be removed after the migration
+    private final List<String> migratedKeys = new ArrayList<String>();
+
+    SharedPreferencesMigration(Context context) {
+        this.context = context;
+        this.sharedPreferences = Manager.getSharedPreferences(context);
+    }
+
+    /**
+     * Reads all notifications and action groups from the SharedPreferences.
+     */
+    SharedPreferencesMigration read() {
+        Map<String, ?> entries = sharedPreferences.getAll();
+
+        for (Map.Entry<String, ?> entry : entries.entrySet()) {
+            String key = entry.getKey();
+
+            if (key.startsWith(KEY_PREFIX_ACTION_GROUP) && entry.getValue() instanceof String) {
+                actionGroups.add(new String[] {
+                    key.substring(KEY_PREFIX_ACTION_GROUP.length()), (String) entry.getValue()});
+                migratedKeys.add(key);
+                continue;
+            }
+
+            // Skip keys with underscore for e.g. _occurrence, they are read with the options
+            if (key.contains("_")) continue;
+
+            NotificationRecord record;
+
+            try {
+                record = readNotification(Integer.parseInt(key), entries);
+            } catch (NumberFormatException exception) {
+                Log.w(TAG, "Skipping unknown key: " + key);
+                continue;
+            }
+
+            // Keep the data of a notification, which could not be read
+            if (record == null) continue;
+
+            records.add(record);
+            migratedKeys.add(key);
+            migratedKeys.add(key + "_occurrence");
+            migratedKeys.add(key + "_triggerBaseDate");
+            migratedKeys.add(key + "_triggerDate");
+        }
+
+        Log.d(TAG, "Read from SharedPreferences" +
+            ", notifications=" + records.size() +
+            ", actionGroups=" + actionGroups.size());
+
+        return this;
+    }
+
+    /**
+     * Reads a single notification.
+     * @return null if the options could not be parsed.
+     */
+    private NotificationRecord readNotification(int notificationId, Map<String, ?> entries) {
+        Object optionsJSONString = entries.get("" + notificationId);
+        if (!(optionsJSONString instanceof String)) return null;
+
+        try {
+            // Options converts the properties of older plugin versions,
+            // which is needed to get the channel and group
+            Options options = new Options(context, new JSONObject((String) optionsJSONString));
+
+            return new NotificationRecord(
+                notificationId,
+                options.getAndroidChannelId(),
+                options.getGroup(),
+                getInt(entries.get(notificationId + "_occurrence")),
+                getLong(entries.get(notificationId + "_triggerBaseDate")),
+                getLong(entries.get(notificationId + "_triggerDate")),
+                options.toString());
+        } catch (JSONException exception) {
+            Log.e(TAG, "Could not parse stored notification options, skipping" +
+                ", notificationId=" + notificationId, exception);
+            return null;
+        }
+    }
+
+    List<NotificationRecord> getRecords() {
+        return records;
+    }
+
+    /**
+     * Action groups as pairs of [id, actions JSON string].
+     */
+    List<String[]> getActionGroups() {
+        return actionGroups;
+    }
+
+    /**
+     * Removes the migrated keys from the SharedPreferences. Should only be called,
+     * after the data was stored successfully somewhere else.
+     */
+    void removeMigratedKeys() {
+        if (migratedKeys.isEmpty()) return;
+
+        SharedPreferences.Editor editor = sharedPreferences.edit();
+
+        for (String key : migratedKeys) {
+            editor.remove(key);
+        }
+
+        editor.apply();
+
+        Log.d(TAG, "Removed migrated keys from SharedPreferences, count=" + migratedKeys.size());
+    }
+
+    private static int getInt(Object value) {
+        return value instanceof Integer ? (Integer) value : 0;
+    }
+
+    private static long getLong(Object value) {
+        return value instanceof Long ? (Long) value : 0;
+    }
+}
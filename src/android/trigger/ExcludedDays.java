@@ -0,0 +1,162 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification.trigger;
+
+import android.util.Log;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * Days on which a repeating trigger should not trigger, set by trigger.except.
+ * The dates are compiled to sorted and merged ranges of days since the epoch
+ * in the time zone of the device, so checking a date is a binary search
+ * and a range of excluded days can be skipped at once.
+ */
+final class ExcludedDays {
+
+    private static final String TAG = "ExcludedDays";
+
+    /** Returned by {@link #getExcludedUntil(long)}, if a date is not excluded */
+    static final long NOT_EXCLUDED = -1;
+
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private final TimeZone timeZone = TimeZone.getDefault();
+
+    private final Calendar calendar = Calendar.getInstance(timeZone);
+
+    // First and last day of the excluded ranges, sorted ascending without overlaps
+    private final int[] startDays;
+    private final int[] endDays;
+
+    /**
+     * @param exceptJSON Dates in milliseconds or objects like { from: ..., to: ... }
+     * with dates in milliseconds, see {@link de.appplant.cordova.plugin.localnotification.OptionsTrigger#getExcept()}.
+     */
+    ExcludedDays(JSONArray exceptJSON) {
+        List<int[]> ranges = new ArrayList<int[]>(exceptJSON.length());
+
+        for (int index = 0; index < exceptJSON.length(); index++) {
+            JSONObject rangeJSON = exceptJSON.optJSONObject(index);
+            long from = rangeJSON != null ? rangeJSON.optLong("from") : exceptJSON.optLong(index);
+            long to = rangeJSON != null ? rangeJSON.optLong("to", from) : from;
+
+            if (from <= 0 || to < from) {
+                Log.w(TAG, "Skipping wrong trigger.except entry: " + exceptJSON.opt(index));
+                continue;
+            }
+
+            ranges.add(new int[] {getDay(from), getDay(to)});
+        }
+
+        Collections.sort(ranges, new Comparator<int[]>() {
+            @Override
+            public int compare(int[] range1, int[] range2) {
+                return range1[0] < range2[0] ? -1 : (range1[0] == range2[0] ? 0 : 1);
+            }
+        });
+
+        int[] startDays = new int[ranges.size()];
+        int[] endDays = new int[ranges.size()];
+        int size = 0;
+
+        // Merge overlapping and adjacent ranges
+        for (int[] range : ranges) {
+            if (size > 0 && range[0] <= endDays[size - 1] + 1) {
+                endDays[size - 1] = Math.max(endDays[size - 1], range[1]);
+                continue;
+            }
+
+            startDays[size] = range[0];
+            endDays[size] = range[1];
+            size++;
+        }
+
+        this.startDays = Arrays.copyOf(startDays, size);
+        this.endDays = Arrays.copyOf(endDays, size);
+    }
+
+    /**
+     * Number of excluded ranges after merging them.
+     */
+    int size() {
+        return startDays.length;
+    }
+
+    /**
+     * Gets the end of the excluded range, which contains a date.
+     * @param date Date in milliseconds.
+     * @return Start of the first day after the range in milliseconds, which is the first
+     * date, that is not excluded, or {@link #NOT_EXCLUDED} if the date is not excluded.
+     */
+    long getExcludedUntil(long date) {
+        int rangeIndex = getRangeIndex(getDay(date));
+        if (rangeIndex < 0) return NOT_EXCLUDED;
+
+        return getStartOfDay(endDays[rangeIndex] + 1);
+    }
+
+    /**
+     * Index of the range, which contains a day.
+     * @return -1 if the day is not excluded.
+     */
+    private int getRangeIndex(int day) {
+        int index = Arrays.binarySearch(startDays, day);
+
+        // Not a start day, check the range before the insertion point
+        if (index < 0) index = -(index + 1) - 1;
+
+        return index >= 0 && day <= endDays[index] ? index : -1;
+    }
+
+    /**
+     * Day since the epoch of a date in the time zone of the device.
+     */
+    private int getDay(long date) {
+        long localDate = date + timeZone.getOffset(date);
+        // Round down for dates before the epoch
+        return (int) (localDate >= 0 ? localDate / DAY_MILLIS : (localDate - DAY_MILLIS + 1) / DAY_MILLIS);
+    }
+
+    /**
+     * Start of a day since the epoch in the time zone of the device.
+     * @return Date in milliseconds.
+     */
+    private long getStartOfDay(int day) {
+        // Start at noon of the day, so a daylight saving time shift cannot change the day
+        calendar.setTimeInMillis(day * DAY_MILLIS - timeZone.getRawOffset() + DAY_MILLIS / 2);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+}
@@ -51,6 +51,16 @@ public abstract class TriggerHandler {
      */
     Date triggerDate;
 
+    /**
+     * Calendar, which is reused for calculating the triggers, see {@link #getCalendar(long)}.
+     * Created once, so the time zone is only looked up once.
+     */
+    private final Calendar calendar = Calendar.getInstance();
+
+    // trigger.before compiled on construction, see isWithinTriggerbefore
+    private final boolean hasBefore;
+    private final long before;
+
     /**
      * @param options Notification options
      */
@@ -60,6 +70,8 @@ public abstract class TriggerHandler {
         // Set the base date from where to calculate the next trigger
         // This can be set by config or is set to the current date
         this.baseDate = new Date();
+        this.hasBefore = optionsTrigger.has("before");
+        this.before = optionsTrigger.getBefore();
     }
 
     public abstract boolean isLastOccurrence();
@@ -90,7 +102,7 @@ public abstract class TriggerHandler {
         // All occurrences have been run through
         if (isLastOccurrence()) return null;
 
-        Date nextTriggerDate = calculateNextTrigger(dateToCalendar(baseDate));
+        Date nextTriggerDate = calculateNextTrigger(getCalendar(baseDate.getTime()));
 
         Log.d(TAG, "Next trigger date: " + nextTriggerDate + ", notificationId=" + options.getId());
         
@@ -106,7 +118,7 @@ public abstract class TriggerHandler {
     }
 
     /**
-     * Restores the state of the trigger, when the notification is loaded from the SharedPreferences
+     * Restores the state of the trigger, when the notification is loaded from the store
      * @param occurrence
      * @param baseDate
      * @param triggerDate
@@ -117,6 +129,44 @@ public abstract class TriggerHandler {
         this.triggerDate = triggerDate;
     }
 
+    /**
+     * Points the handler to new options, e.g. after other properties than the trigger
+     * were updated. Values compiled from the trigger on construction are kept,
+     * so a changed trigger needs a new handler.
+     * @param options Notification options with the same trigger
+     */
+    public void setOptions(Options options) {
+        this.options = options;
+        this.optionsTrigger = options.getOptionsTrigger();
+    }
+
+    /**
+     * Skips the occurrences up to a date, so the trigger date will be the last occurrence,
+     * which is not after the date. Only the trigger state is changed, nothing is shown.
+     * Used to catch up a repeating trigger at once, if it missed occurrences, e.g. because
+     * the device was turned off. The occurrences are calculated one after another,
+     * subclasses can jump to the occurrence directly.
+     * @param date Date in milliseconds up to which the occurrences are skipped.
+     * @return Number of skipped occurrences.
+     */
+    public int skipOccurrencesUntil(long date) {
+        if (triggerDate == null) return 0;
+
+        int skipped = 0;
+
+        while (!isLastOccurrence()) {
+            Date nextTriggerDate = calculateNextTrigger(getCalendar(triggerDate.getTime()));
+            if (nextTriggerDate == null || nextTriggerDate.getTime() > date) break;
+
+            baseDate = triggerDate;
+            triggerDate = nextTriggerDate;
+            occurrence++;
+            skipped++;
+        }
+
+        return skipped;
+    }
+
     public Date getTriggerDate() {
         return triggerDate;
     }
@@ -133,11 +183,12 @@ public abstract class TriggerHandler {
     }
 
     /**
-     * Converts a {@link Date} to {@link Calendar}.
+     * Sets the reused calendar of this handler to a date. The calendar is only valid
+     * until the next call, so it must not be kept.
+     * @param millis Date in milliseconds.
      */
-    Calendar dateToCalendar(Date date) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(date);
+    Calendar getCalendar(long millis) {
+        calendar.setTimeInMillis(millis);
         return calendar;
     }
 
@@ -145,8 +196,16 @@ public abstract class TriggerHandler {
      * Checks if the trigger date is within the trigger before option, if present
      */
     public boolean isWithinTriggerbefore(Calendar calendar) {
+        return isWithinTriggerbefore(calendar.getTimeInMillis());
+    }
+
+    /**
+     * Checks if the trigger date is within the trigger before option, if present
+     * @param millis Trigger date in milliseconds.
+     */
+    boolean isWithinTriggerbefore(long millis) {
         // Return true, if there is no trigger before option, otherwise compare against it
-        return !optionsTrigger.has("before") || calendar.getTimeInMillis() < optionsTrigger.getBefore();
+        return !hasBefore || millis < before;
     }
 
     /**
@@ -154,41 +213,32 @@ public abstract class TriggerHandler {
      * @param calendar The calendar to manipulate.
      */
     public void addInterval(Calendar calendar, String triggerUnit, int amount) {
-        switch (triggerUnit) {
-            case "second":
-                calendar.add(Calendar.SECOND, amount);
-                break;
-
-            case "minute":
-                calendar.add(Calendar.MINUTE, amount);
-                break;
-
-            case "hour":
-                calendar.add(Calendar.HOUR_OF_DAY, amount);
-                break;
-
-            case "day":
-                calendar.add(Calendar.DAY_OF_YEAR, amount);
-                break;
-
-            case "week":
-                calendar.add(Calendar.WEEK_OF_YEAR, amount);
-                break;
-
-            case "month":
-                calendar.add(Calendar.MONTH, amount);
-                break;
-
-            case "quarter":
-                calendar.add(Calendar.MONTH, amount * 3);
-                break;
-
-            case "year":
-                calendar.add(Calendar.YEAR, amount);
-                break;
+        calendar.add(getUnitField(triggerUnit), amount * getUnitFactor(triggerUnit));
+    }
 
-            default:
-                throw new IllegalArgumentException("Unknown trigger unit: " + triggerUnit);
+    /**
+     * Gets the {@link Calendar} field of a trigger unit like 'minute'.
+     * A unit can span multiple fields, see {@link #getUnitFactor(String)}.
+     * @throws IllegalArgumentException If the unit is unknown.
+     */
+    static int getUnitField(String triggerUnit) {
+        switch (triggerUnit) {
+            case "second": return Calendar.SECOND;
+            case "minute": return Calendar.MINUTE;
+            case "hour": return Calendar.HOUR_OF_DAY;
+            case "day": return Calendar.DAY_OF_YEAR;
+            case "week": return Calendar.WEEK_OF_YEAR;
+            case "month": return Calendar.MONTH;
+            case "quarter": return Calendar.MONTH;
+            case "year": return Calendar.YEAR;
+            default: throw new IllegalArgumentException("Unknown trigger unit: " + triggerUnit);
         }
     }
+
+    /**
+     * Number of {@link #getUnitField(String)} fields, one trigger unit spans.
+     */
+    static int getUnitFactor(String triggerUnit) {
+        return "quarter".equals(triggerUnit) ? 3 : 1;
+    }
 }
\ No newline at end of file
@@ -22,23 +22,70 @@
 package de.appplant.cordova.plugin.localnotification.trigger;
 
 import android.util.Log;
+import org.json.JSONArray;
 import org.json.JSONObject;
 import java.util.Calendar;
 import java.util.Date;
 
 import de.appplant.cordova.plugin.localnotification.Options;
 import de.appplant.cordova.plugin.localnotification.OptionsTrigger;
+import de.appplant.cordova.plugin.localnotification.util.IntArraySet;
 
 public class TriggerHandlerEvery extends TriggerHandler {
 
     public static final String TAG = "TriggerHandlerEvery";
 
+    /** Value of trigger.every.* if not set */
+    private static final int NOT_SET = -1;
+
     /** Is null if trigger.every is a JSONObject */
     private String triggerEveryString;
 
     /** Is null if trigger.every is a String */
     private JSONObject triggerEveryJSONObject;
 
+    /**
+     * trigger.every as unit like 'day', compiled to the {@link Calendar} field and amount
+     * which is added per occurrence. The field is {@link #NOT_SET}, if the unit is unknown.
+     */
+    private final int everyUnitField;
+    private final int everyUnitAmount;
+
+    /** Maximum number of combinations of trigger.every values, see {@link #everyCombinations} */
+    private static final int MAX_EVERY_COMBINATIONS = 1000;
+
+    // trigger.every.minute, hour, day and weekday can be a single value or an array of values,
+    // like { hour: [8, 12, 18], minute: 0 }. Compiled to sorted arrays, empty if not present.
+    private final int[] everyMinutes;
+    private final int[] everyHours;
+    private final int[] everyDays;
+    private final int[] everyWeekdays;
+
+    // Number of combinations of the values of everyMinutes, everyHours, everyDays and everyWeekdays.
+    // Each combination is a single trigger, the earliest one is the next trigger.
+    private final int everyCombinations;
+
+    // trigger.every as JSONObject compiled to primitives, NOT_SET if not present.
+    // Read once, so calculating a trigger does not have to look up the JSONObject.
+    // Minute, hour, day and weekday are the values of the combination, which is calculated.
+    private int everyMinute;
+    private int everyHour;
+    private int everyDay;
+    private int everyWeekday;
+    private final int everyWeekOfMonth;
+    private final int everyWeek;
+    private final int everyMonth;
+
+    // trigger.except compiled on construction, null if not set
+    private final ExcludedDays excludedDays;
+
+    // trigger.count compiled on construction
+    private final boolean hasCount;
+    private final int count;
+
+    /** Calendar, which is reused for the next trigger, see {@link #calculateNextCombinationMillis(long)} */
+    private final Calendar nextCalendar = Calendar.getInstance();
+
     /**
      * Example:
      * trigger: { every: 'day', count: 5 }
@@ -51,6 +98,34 @@ public class TriggerHandlerEvery extends TriggerHandler {
         this.triggerEveryString = optionsTrigger.getEveryAsString();
         this.triggerEveryJSONObject = optionsTrigger.getEveryAsJSONObject();
 
+        if (triggerEveryString != null && getMaxUnitMillis(triggerEveryString) > 0) {
+            this.everyUnitField = getUnitField(triggerEveryString);
+            this.everyUnitAmount = getUnitFactor(triggerEveryString);
+        } else {
+            this.everyUnitField = NOT_SET;
+            this.everyUnitAmount = 0;
+        }
+
+        this.everyMinutes = getEveryValues("minute");
+        this.everyHours = getEveryValues("hour");
+        this.everyDays = getEveryValues("day");
+        this.everyWeekdays = getEveryValues("weekday");
+        this.everyCombinations = Math.max(everyMinutes.length, 1) * Math.max(everyHours.length, 1) *
+            Math.max(everyDays.length, 1) * Math.max(everyWeekdays.length, 1);
+        setEveryCombination(0);
+
+        this.everyWeekOfMonth = getEveryValue("weekOfMonth");
+        this.everyWeek = getEveryValue("week");
+        this.everyMonth = getEveryValue("month");
+
+        JSONArray exceptJSON = optionsTrigger.getExcept();
+        this.excludedDays = exceptJSON != null && exceptJSON.length() > 0 ? new ExcludedDays(exceptJSON) : null;
+
+        // A series ends with its last occurrence, if trigger.count is not set
+        int seriesLength = options.getAndroidSeriesLength();
+        this.hasCount = optionsTrigger.has("count") || seriesLength > 0;
+        this.count = optionsTrigger.has("count") ? optionsTrigger.getCount() : seriesLength;
+
         // Change base date if firstAt or after is set
         if (optionsTrigger.has("firstAt")) {
             this.baseDate = new Date(optionsTrigger.getFirstAt());
@@ -60,9 +135,166 @@ public class TriggerHandlerEvery extends TriggerHandler {
         }
     }
 
+    /**
+     * Gets a value of trigger.every as JSONObject.
+     * @return {@link #NOT_SET} if trigger.every is not a JSONObject or the value is not present.
+     */
+    private int getEveryValue(String key) {
+        if (triggerEveryJSONObject == null || !triggerEveryJSONObject.has(key)) return NOT_SET;
+        return triggerEveryJSONObject.optInt(key);
+    }
+
+    /**
+     * Gets the values of trigger.every as JSONObject, which can be a single value or an array.
+     * @return The values sorted ascending without duplicates, empty if not present.
+     */
+    private int[] getEveryValues(String key) {
+        if (triggerEveryJSONObject == null || !triggerEveryJSONObject.has(key)) return new int[0];
+
+        JSONArray valuesJSON = triggerEveryJSONObject.optJSONArray(key);
+        if (valuesJSON == null) return new int[] {triggerEveryJSONObject.optInt(key)};
+
+        IntArraySet values = new IntArraySet(valuesJSON.length());
+
+        for (int index = 0; index < valuesJSON.length(); index++) {
+            values.add(valuesJSON.optInt(index));
+        }
+
+        return values.toArray();
+    }
+
+    /**
+     * Sets everyMinute, everyHour, everyDay and everyWeekday to the values of a combination.
+     * @param combination Index of the combination, from 0 to {@link #everyCombinations} - 1.
+     */
+    private void setEveryCombination(int combination) {
+        everyMinute = getCombinationValue(everyMinutes, combination);
+        combination /= Math.max(everyMinutes.length, 1);
+
+        everyHour = getCombinationValue(everyHours, combination);
+        combination /= Math.max(everyHours.length, 1);
+
+        everyDay = getCombinationValue(everyDays, combination);
+        combination /= Math.max(everyDays.length, 1);
+
+        everyWeekday = getCombinationValue(everyWeekdays, combination);
+    }
+
+    private static int getCombinationValue(int[] values, int combination) {
+        return values.length == 0 ? NOT_SET : values[combination % values.length];
+    }
+
     public boolean isLastOccurrence() {
         // Check if trigger.count is exceeded if it is set
-        return optionsTrigger.has("count") && occurrence >= optionsTrigger.getCount();
+        return hasCount && occurrence >= count;
+    }
+
+    /**
+     * Jumps directly to the last occurrence up to the date, if trigger.every is a unit
+     * of a fixed length like 'minute'. Otherwise the occurrences are calculated one
+     * after another.
+     */
+    @Override
+    public int skipOccurrencesUntil(long date) {
+        // The occurrences have to be checked against trigger.except one after another.
+        // Units like month have no fixed length, adding them at once can give another
+        // day than adding them one after another, like getNextTriggerDate does.
+        if (triggerDate == null || everyUnitField == NOT_SET || excludedDays != null ||
+            getMinUnitMillis(triggerEveryString) == 0) {
+            return super.skipOccurrencesUntil(date);
+        }
+
+        long triggerMillis = triggerDate.getTime();
+        if (triggerMillis >= date) return 0;
+
+        // Occurrences, which are left by trigger.count
+        int maxSkipped = hasCount ? Math.max(0, count - occurrence) : Integer.MAX_VALUE;
+
+        // Search the last occurrence, which is not after the date and before trigger.before.
+        // The minimum length of a unit is used, so the upper bound is never too low.
+        int low = 0;
+        int high = (int) Math.min((date - triggerMillis) / getMinUnitMillis(triggerEveryString), maxSkipped);
+
+        while (low < high) {
+            int middle = (int) (low + ((long) high - low + 1) / 2);
+            long occurrenceMillis = getOccurrenceMillis(triggerMillis, middle);
+
+            if (occurrenceMillis <= date && isWithinTriggerbefore(occurrenceMillis)) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+
+        int skipped = low;
+        if (skipped == 0) return 0;
+
+        long occurrenceMillis = getOccurrenceMillis(triggerMillis, skipped);
+
+        Log.d(TAG, "Skipped occurrences" +
+            ", skipped=" + skipped +
+            ", triggerDate=" + triggerDate +
+            ", newTriggerDate=" + occurrenceMillis +
+            ", notificationId=" + options.getId());
+
+        baseDate = triggerDate;
+        triggerDate = new Date(occurrenceMillis);
+        occurrence += skipped;
+
+        return skipped;
+    }
+
+    /**
+     * Date of the occurrence, which comes the given number of occurrences after a trigger date.
+     * Only equal to calculating the occurrences one after another for units of a fixed length,
+     * see {@link #getMinUnitMillis(String)}.
+     * @param triggerMillis Trigger date in milliseconds.
+     * @return Date in milliseconds.
+     */
+    private long getOccurrenceMillis(long triggerMillis, int occurrences) {
+        Calendar calendar = getCalendar(triggerMillis);
+        calendar.add(everyUnitField, everyUnitAmount * occurrences);
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * Minimum length of a trigger unit in milliseconds, including a daylight saving time shift.
+     * @return 0 if the unit is unknown or has no fixed length, like month, quarter and year,
+     * which depend on the number of days of the month.
+     */
+    private static long getMinUnitMillis(String triggerUnit) {
+        long hour = 60 * 60 * 1000;
+
+        switch (triggerUnit) {
+            case "second": return 1000;
+            case "minute": return 60 * 1000;
+            case "hour": return hour;
+            case "day": return 23 * hour;
+            case "week": return 7 * 24 * hour - hour;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Maximum length of a trigger unit in milliseconds, including a daylight saving time shift.
+     * @return 0 if the unit is unknown.
+     */
+    private static long getMaxUnitMillis(String triggerUnit) {
+        long hour = 60 * 60 * 1000;
+
+        switch (triggerUnit) {
+            case "second": return 1000;
+            case "minute": return 60 * 1000;
+            case "hour": return hour;
+            case "day": return 25 * hour;
+            case "week": return 7 * 24 * hour + hour;
+            case "month": return 31 * 24 * hour + hour;
+            case "quarter": return 92 * 24 * hour + hour;
+            case "year": return 366 * 24 * hour + hour;
+        }
+
+        return 0;
     }
 
     /**
@@ -73,44 +305,131 @@ public class TriggerHandlerEvery extends TriggerHandler {
         // All occurrences are done
         if (isLastOccurrence()) return null;
 
-        Calendar nextCalendar = (Calendar) baseCalendar.clone();
+        long baseMillis = baseCalendar.getTimeInMillis();
+        long nextMillis = calculateFirstTriggerMillis(baseMillis, baseMillis + 1);
+
+        // Skip the days excluded by trigger.except. Each jump passes an excluded range,
+        // so there are not more jumps than ranges.
+        for (int jumps = 0; nextMillis != NOT_SET && excludedDays != null; jumps++) {
+            long excludedUntil = excludedDays.getExcludedUntil(nextMillis);
+            if (excludedUntil == ExcludedDays.NOT_EXCLUDED) break;
+
+            // Triggers after trigger.before are not needed
+            if (jumps > excludedDays.size() || !isWithinTriggerbefore(nextMillis)) return null;
+
+            nextMillis = calculateFirstTriggerMillis(baseMillis, excludedUntil);
+        }
+
+        // Options are empty or wrong
+        if (nextMillis == NOT_SET) return null;
+
+        // Check if the trigger is within the before option
+        if (!isWithinTriggerbefore(nextMillis)) return null;
+
+        return new Date(nextMillis);
+    }
 
+    /**
+     * Calculates the first trigger, which is not before a date.
+     * @param baseMillis The date in milliseconds from where the triggers are calculated.
+     * @param fromMillis The date in milliseconds, the trigger must not be before.
+     * @return The trigger in milliseconds or {@link #NOT_SET} if the options are empty or wrong.
+     */
+    private long calculateFirstTriggerMillis(long baseMillis, long fromMillis) {
         // trigger: { every: 'day', count: 5 }
         if (triggerEveryString != null) {
-            try {
-                addInterval(nextCalendar, triggerEveryString, 1);
-            } catch (IllegalArgumentException exception) {
-                Log.e(TAG, "Error calculating next trigger, trigger unit is wrong: " + exception.getMessage());
-                return null;
+            if (everyUnitField == NOT_SET) {
+                Log.e(TAG, "Error calculating next trigger, trigger unit is wrong: " + triggerEveryString);
+                return NOT_SET;
             }
 
-            // trigger every: { minute: 10, hour: 9, day: 27, month: 10 }
-        } else if (triggerEveryJSONObject != null) {
-            // Set calendar to trigger.every values like minute: 20, hour: 9, etc.
-            // Returns the next higher Calendar field for calculating the next trigger
-            // If 0 is returned the options are empty or wrong
-            int nextTriggerCalendarFieldToIncrease = setEveryValues(nextCalendar);
-
-            // Nothing should be increased, options are empty or wrong
-            if (nextTriggerCalendarFieldToIncrease == 0) return null;
-
-            // If the next trigger is in the past or equal, increase the calendar
-            // The trigger could be set by trigger.every to the past.
-            // For e.g., if the current time is 9:30 and every: {minute: 10} is set, the trigger
-            // would be set to 9:10. To get a next trigger, the hour have to be increased by 1 to 10:10.
-            if (nextCalendar.compareTo(baseCalendar) <= 0) {
-                nextCalendar.add(nextTriggerCalendarFieldToIncrease, 1);
-                // Correct trigger after incrementing it
-                // Example: If weekday was set to monday and a year was added,
-                // the weekday could be changed to another day, set to monday again
-                setEveryValues(nextCalendar);
+            // Units like month have no fixed length, so they are added one after another
+            // like getNextTriggerDate does, e.g. January 31, February 28, March 28
+            if (getMinUnitMillis(triggerEveryString) == 0) {
+                long nextMillis = getOccurrenceMillis(baseMillis, 1);
+
+                while (nextMillis < fromMillis) {
+                    nextMillis = getOccurrenceMillis(nextMillis, 1);
+                }
+
+                return nextMillis;
             }
+
+            // The maximum length of a unit is used, so the estimation is never too high
+            int occurrences = (int) Math.max(1, (fromMillis - baseMillis) / getMaxUnitMillis(triggerEveryString));
+            long nextMillis = getOccurrenceMillis(baseMillis, occurrences);
+
+            // Correct the estimation, a unit can be shorter by a daylight saving time shift
+            while (nextMillis < fromMillis) {
+                nextMillis = getOccurrenceMillis(baseMillis, ++occurrences);
+            }
+
+            return nextMillis;
         }
 
-        // Check if the trigger is within the before option
-        if (!isWithinTriggerbefore(nextCalendar)) return null;
+        // trigger every: { minute: 10, hour: 9, day: 27, month: 10 }
+        if (triggerEveryJSONObject != null) return calculateNextEveryMillis(fromMillis - 1);
+
+        return NOT_SET;
+    }
+
+    /**
+     * Calculates the next trigger of trigger.every as JSONObject. If multiple values
+     * are set, like { hour: [8, 12, 18] }, the earliest trigger of all combinations is used.
+     * @param baseMillis The date in milliseconds from where to calculate the next trigger.
+     * @return The next trigger in milliseconds or {@link #NOT_SET} if the options are empty or wrong.
+     */
+    private long calculateNextEveryMillis(long baseMillis) {
+        if (everyCombinations > MAX_EVERY_COMBINATIONS) {
+            Log.e(TAG, "Error calculating next trigger, too many combinations of trigger.every values" +
+                ", combinations=" + everyCombinations +
+                ", max=" + MAX_EVERY_COMBINATIONS);
+            return NOT_SET;
+        }
+
+        long nextMillis = NOT_SET;
+
+        for (int combination = 0; combination < everyCombinations; combination++) {
+            if (everyCombinations > 1) setEveryCombination(combination);
+
+            long combinationMillis = calculateNextCombinationMillis(baseMillis);
+            if (combinationMillis == NOT_SET) continue;
+
+            if (nextMillis == NOT_SET || combinationMillis < nextMillis) nextMillis = combinationMillis;
+        }
+
+        return nextMillis;
+    }
+
+    /**
+     * Calculates the next trigger for the current values of trigger.every as JSONObject.
+     * @param baseMillis The date in milliseconds from where to calculate the next trigger.
+     * @return The next trigger in milliseconds or {@link #NOT_SET} if the options are empty or wrong.
+     */
+    private long calculateNextCombinationMillis(long baseMillis) {
+        nextCalendar.setTimeInMillis(baseMillis);
+
+        // Set calendar to trigger.every values like minute: 20, hour: 9, etc.
+        // Returns the next higher Calendar field for calculating the next trigger
+        // If 0 is returned the options are empty or wrong
+        int nextTriggerCalendarFieldToIncrease = setEveryValues(nextCalendar);
+
+        // Nothing should be increased, options are empty or wrong
+        if (nextTriggerCalendarFieldToIncrease == 0) return NOT_SET;
+
+        // If the next trigger is in the past or equal, increase the calendar
+        // The trigger could be set by trigger.every to the past.
+        // For e.g., if the current time is 9:30 and every: {minute: 10} is set, the trigger
+        // would be set to 9:10. To get a next trigger, the hour have to be increased by 1 to 10:10.
+        if (nextCalendar.getTimeInMillis() <= baseMillis) {
+            nextCalendar.add(nextTriggerCalendarFieldToIncrease, 1);
+            // Correct trigger after incrementing it
+            // Example: If weekday was set to monday and a year was added,
+            // the weekday could be changed to another day, set to monday again
+            setEveryValues(nextCalendar);
+        }
 
-        return nextCalendar.getTime();
+        return nextCalendar.getTimeInMillis();
     }
 
     /**
@@ -128,32 +447,32 @@ public class TriggerHandlerEvery extends TriggerHandler {
         calendar.set(Calendar.SECOND, 0);
 
         // Set minute from options in next calendar
-        if (triggerEveryJSONObject.has("minute")) {
-            calendar.set(Calendar.MINUTE, triggerEveryJSONObject.optInt("minute"));
+        if (everyMinute != NOT_SET) {
+            calendar.set(Calendar.MINUTE, everyMinute);
             // One hour has to be added for the next trigger
             nextTriggerCalendarFieldToIncrease = Calendar.HOUR;
         }
 
         // Set hour from options in next calendar
-        if (triggerEveryJSONObject.has("hour")) {
-            calendar.set(Calendar.HOUR_OF_DAY, triggerEveryJSONObject.optInt("hour"));
+        if (everyHour != NOT_SET) {
+            calendar.set(Calendar.HOUR_OF_DAY, everyHour);
             resetTimeIfNotSetByTrigger(calendar);
             // One day has to be added for the next trigger
             nextTriggerCalendarFieldToIncrease = Calendar.DAY_OF_YEAR;
         }
 
         // Set day from options in next calendar
-        if (triggerEveryJSONObject.has("day")) {
-            calendar.set(Calendar.DAY_OF_MONTH, triggerEveryJSONObject.optInt("day"));
+        if (everyDay != NOT_SET) {
+            calendar.set(Calendar.DAY_OF_MONTH, everyDay);
             resetTimeIfNotSetByTrigger(calendar);
             // One month has to be added for the next trigger
             nextTriggerCalendarFieldToIncrease = Calendar.MONTH;
         }
  
         // Set weekday (day of week) from options in next calendar (1 = Monday, 7 = Sunday)
-        if (triggerEveryJSONObject.has("weekday")) {
+        if (everyWeekday != NOT_SET) {
             // Calendar.MONDAY is 2, so we have to add 1 to the weekday
-            calendar.set(Calendar.DAY_OF_WEEK, 1 + triggerEveryJSONObject.optInt("weekday"));
+            calendar.set(Calendar.DAY_OF_WEEK, 1 + everyWeekday);
 
             resetTimeIfNotSetByTrigger(calendar);
 
@@ -162,17 +481,16 @@ public class TriggerHandlerEvery extends TriggerHandler {
         }
  
         // Set weekOfMonth from options in next calendar
-        if (triggerEveryJSONObject.has("weekOfMonth")) {
+        if (everyWeekOfMonth != NOT_SET) {
  
-            int weekOfMonth = triggerEveryJSONObject.optInt("weekOfMonth");
-            calendar.set(Calendar.WEEK_OF_MONTH, weekOfMonth);
+            calendar.set(Calendar.WEEK_OF_MONTH, everyWeekOfMonth);
  
             // Reset hour/minute
             resetTimeIfNotSetByTrigger(calendar);
             resetWeekdayIfNotSetByTrigger(calendar);
 
             // If the week of month is the first week, set day of month to 1
-            if (weekOfMonth == 1) {
+            if (everyWeekOfMonth == 1) {
                 calendar.set(Calendar.DAY_OF_MONTH, 1);
                 // Correct weekday if it is set, but prevent jumping to the last month
                 setWeekdayIfInFuture(calendar);
@@ -183,15 +501,14 @@ public class TriggerHandlerEvery extends TriggerHandler {
         }
  
         // Set week of year from options in next calendar
-        if (triggerEveryJSONObject.has("week")) {
-            int weekOfYear = triggerEveryJSONObject.optInt("week");
-            calendar.set(Calendar.WEEK_OF_YEAR, weekOfYear);
+        if (everyWeek != NOT_SET) {
+            calendar.set(Calendar.WEEK_OF_YEAR, everyWeek);
 
             resetTimeIfNotSetByTrigger(calendar);
             resetWeekdayIfNotSetByTrigger(calendar);
             
             // If the week of year is the first week, set day of year to 1
-            if (weekOfYear == 1) {
+            if (everyWeek == 1) {
                 calendar.set(Calendar.DAY_OF_YEAR, 1);
                 // Correct weekday if it is set, but prevent jumping to the last year
                 setWeekdayIfInFuture(calendar);
@@ -201,9 +518,9 @@ public class TriggerHandlerEvery extends TriggerHandler {
         }
  
         // Set month from options in next calendar
-        if (triggerEveryJSONObject.has("month")) {
+        if (everyMonth != NOT_SET) {
             // The first month is 0 for Calendar
-            calendar.set(Calendar.MONTH, triggerEveryJSONObject.optInt("month") - 1);
+            calendar.set(Calendar.MONTH, everyMonth - 1);
 
             resetTimeIfNotSetByTrigger(calendar);
             resetDayIfNotSetByTrigger(calendar);
@@ -220,9 +537,9 @@ public class TriggerHandlerEvery extends TriggerHandler {
      **/
     private void resetTimeIfNotSetByTrigger(Calendar calendar) {
         // Reset minute if not set
-        if (!triggerEveryJSONObject.has("minute")) calendar.set(Calendar.MINUTE, 0);
+        if (everyMinute == NOT_SET) calendar.set(Calendar.MINUTE, 0);
         // Reset hour if not set
-        if (!triggerEveryJSONObject.has("hour")) calendar.set(Calendar.HOUR_OF_DAY, 0);
+        if (everyHour == NOT_SET) calendar.set(Calendar.HOUR_OF_DAY, 0);
     }
 
     /**
@@ -230,12 +547,12 @@ public class TriggerHandlerEvery extends TriggerHandler {
      * @param calendar
      */
     private void resetDayIfNotSetByTrigger(Calendar calendar) {
-        if (triggerEveryJSONObject.has("day") || triggerEveryJSONObject.has("weekday")) return;
+        if (everyDay != NOT_SET || everyWeekday != NOT_SET) return;
         calendar.set(Calendar.DAY_OF_MONTH, 1);
     }
 
     private void resetWeekdayIfNotSetByTrigger(Calendar calendar) {
-        if (triggerEveryJSONObject.has("weekday")) return;
+        if (everyWeekday != NOT_SET) return;
         calendar.set(Calendar.DAY_OF_WEEK, calendar.getFirstDayOfWeek());
     }
 
@@ -245,12 +562,12 @@ public class TriggerHandlerEvery extends TriggerHandler {
      */
     private void setWeekdayIfInFuture(Calendar calendar) {
         // Not set by options
-        if (!triggerEveryJSONObject.has("weekday")) return;
+        if (everyWeekday == NOT_SET) return;
 
         // Only set if in future. For weekday 1 is Monday and for Calendar it is 2,
         // so we have to consider it
-        if (calendar.get(Calendar.DAY_OF_WEEK) < 1 + triggerEveryJSONObject.optInt("weekday")) {
-            calendar.set(Calendar.DAY_OF_WEEK, 1 + triggerEveryJSONObject.optInt("weekday"));
+        if (calendar.get(Calendar.DAY_OF_WEEK) < 1 + everyWeekday) {
+            calendar.set(Calendar.DAY_OF_WEEK, 1 + everyWeekday);
         }
     }
 }
\ No newline at end of file
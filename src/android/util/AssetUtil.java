@@ -24,6 +24,7 @@ package de.appplant.cordova.plugin.localnotification.util;
 
 import android.content.ContentResolver;
 import android.content.Context;
+import android.content.pm.PackageManager;
 import android.content.res.Resources;
 import androidx.appcompat.content.res.AppCompatResources;
 
@@ -49,6 +50,11 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Util class to map unified asset URIs to native URIs. See {@link AssetUtil#getUri(String, int)}.
@@ -65,6 +71,35 @@ public final class AssetUtil {
     public static final int RESOURCE_TYPE_DRAWABLE = 0;
     public static final int RESOURCE_TYPE_RAW = 1;
 
+    // Transformations of a bitmap, see getBitmap
+    public static final int BITMAP_TRANSFORM_NONE = 0;
+    public static final int BITMAP_TRANSFORM_CIRCLE = 1;
+
+    // Sizes to decode a bitmap for, see getBitmap
+    public static final int BITMAP_SIZE_ORIGINAL = 0;
+    public static final int BITMAP_SIZE_LARGE_ICON = 1;
+    public static final int BITMAP_SIZE_BIG_PICTURE = 2;
+
+    // Maximum size of a big picture, defined by the framework resources
+    // notification_big_picture_max_width and notification_big_picture_max_height.
+    // The system scales bigger pictures down to fit into this size.
+    private static final int BIG_PICTURE_MAX_WIDTH_DP = 416;
+    private static final int BIG_PICTURE_MAX_HEIGHT_DP = 208;
+
+    // Size of a chunk, when copying an asset
+    private static final long COPY_CHUNK_SIZE = 64 * 1024;
+
+    // Resource ids by package, directory and resource name, see getResourceId.
+    // Contains also not found resources with the id 0. The identifiers can
+    // only change with an app or system update, which restarts the process.
+    private static final Map<String, Integer> resourceIds = new ConcurrentHashMap<String, Integer>();
+
+    // Uris of the copied assets by their asset path
+    private static final Map<String, Uri> sharedAssetUris = new ConcurrentHashMap<String, Uri>();
+
+    // See getAppLastUpdateTime
+    private static volatile long appLastUpdateTime = 0;
+
     public AssetUtil(Context context) {
         this.context = context;
     }
@@ -179,13 +214,23 @@ public final class AssetUtil {
 
     /**
      * Get the resource Id. Searches in a given resource directory and resources.
+     * The result is cached for all instances, as {@link Resources#getIdentifier} is slow.
      * @param resources The resources where to look for, can be {@link Context#getResources()} or {@link Resources#getSystem()}
      * @param resourceName Can also be a resource path like "res://mySound", "res://myImage.png", etc.
      * @param resourceDirectory The directory of the resource, for e.g. "mipmap", "drawable", "raw", etc.
      * @return The resource ID or 0 if not found.
      */
     public int getResourceId(Resources resources, String resourceName, String resourceDirectory) {
-        return resources.getIdentifier(getResourceName(resourceName), resourceDirectory, getPackageName(resources));
+        String packageName = getPackageName(resources);
+        String cacheKey = packageName + ":" + resourceDirectory + ":" + resourceName;
+        Integer resourceId = resourceIds.get(cacheKey);
+
+        if (resourceId == null) {
+            resourceId = resources.getIdentifier(getResourceName(resourceName), resourceDirectory, packageName);
+            resourceIds.put(cacheKey, resourceId);
+        }
+
+        return resourceId;
     }
 
     /**
@@ -219,7 +264,7 @@ public final class AssetUtil {
     /**
      * Shared Uri for an asset file.
      * Copies the asset file to the shared directory [App path]/files/shared_files, to make it accessible
-     * through a content:// Uri.
+     * through a content:// Uri. The asset is only copied once per app version, see {@link #isAssetCopyValid(File)}.
      * @param assetPath Path like www/myFile.png or file://myFile.png
      * @return content:// Uri pointing to the shared asset file in [App path]/files/shared_files.
      * E.g. content://com.example.app.localnotifications.provider/shared_files/www/myAssetFile.png
@@ -228,6 +273,10 @@ public final class AssetUtil {
         // Change file:// to www folder
         assetPath = assetPath.replaceFirst("file://", "www/");
 
+        // Already copied by this process
+        Uri sharedUri = sharedAssetUris.get(assetPath);
+        if (sharedUri != null) return sharedUri;
+
         // Create all directories specified by the asset path
         File sharedDirectory = new File(
             getSharedDirectory(), 
@@ -241,14 +290,98 @@ public final class AssetUtil {
         String assetFilename = assetPath.substring(assetPath.lastIndexOf('/') + 1);
         File sharedAssetFile = new File(sharedDirectory, assetFilename);
 
+        if (!isAssetCopyValid(sharedAssetFile)) {
+            try {
+                copyAsset(assetPath, sharedAssetFile);
+            } catch (Exception exception) {
+                Log.e(TAG, "File not found: " + assetPath, exception);
+                return Uri.EMPTY;
+            }
+        }
+
+        sharedUri = getSharedUri(sharedAssetFile);
+        if (sharedUri != Uri.EMPTY) sharedAssetUris.put(assetPath, sharedUri);
+
+        return sharedUri;
+    }
+
+    /**
+     * If the copy of an asset can be used. The assets can only change with an app update,
+     * so a copy is valid, if it was made after the app was installed or updated.
+     */
+    private boolean isAssetCopyValid(File sharedAssetFile) {
+        return sharedAssetFile.isFile() && sharedAssetFile.lastModified() >= getAppLastUpdateTime();
+    }
+
+    /**
+     * Time in milliseconds when the app was installed or updated the last time.
+     * Read once per process.
+     */
+    private long getAppLastUpdateTime() {
+        if (appLastUpdateTime != 0) return appLastUpdateTime;
+
         try {
-            copyFile(context.getAssets().open(assetPath), new FileOutputStream(sharedAssetFile));
-        } catch (Exception exception) {
-            Log.e(TAG, "File not found: " + assetPath, exception);
-            return Uri.EMPTY;
+            appLastUpdateTime = context.getPackageManager().getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+        } catch (PackageManager.NameNotFoundException exception) {
+            // Can not happen for the own package, copy always
+            Log.e(TAG, "Could not get package info", exception);
+            return Long.MAX_VALUE;
+        }
+
+        return appLastUpdateTime;
+    }
+
+    /**
+     * Copies an asset into a file. The asset is copied into a temporary file first, which
+     * is renamed afterwards, so the file is never seen partially written.
+     */
+    private void copyAsset(String assetPath, File targetFile) throws IOException {
+        // Unique name, in case the asset is copied by multiple threads
+        File tempFile = File.createTempFile(targetFile.getName(), ".tmp", targetFile.getParentFile());
+        ReadableByteChannel inputChannel = Channels.newChannel(context.getAssets().open(assetPath));
+        FileOutputStream outputStream = new FileOutputStream(tempFile);
+
+        try {
+            FileChannel outputChannel = outputStream.getChannel();
+            long position = 0;
+            long transferred;
+
+            while ((transferred = outputChannel.transferFrom(inputChannel, position, COPY_CHUNK_SIZE)) > 0) {
+                position += transferred;
+            }
+        } finally {
+            inputChannel.close();
+            outputStream.close();
+        }
+
+        if (!tempFile.renameTo(targetFile)) {
+            tempFile.delete();
+            throw new IOException("Could not rename " + tempFile + " to " + targetFile);
         }
 
-        return getSharedUri(sharedAssetFile);
+        Log.d(TAG, "Copied asset, assetPath=" + assetPath + ", bytes=" + targetFile.length());
+    }
+
+    /**
+     * Removes the copied assets, so they will be copied again on the next usage.
+     * Has to be called when the app was updated, as the assets could have changed.
+     */
+    public void clearAssetCopies() {
+        sharedAssetUris.clear();
+        appLastUpdateTime = 0;
+        deleteRecursive(new File(getSharedDirectory(), "www"));
+    }
+
+    private static void deleteRecursive(File file) {
+        File[] children = file.listFiles();
+
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursive(child);
+            }
+        }
+
+        file.delete();
     }
 
     /**
@@ -280,10 +413,56 @@ public final class AssetUtil {
      * @return The bitmap or null if the resource could not be found, or an {@link IOException} occurred.
      */
     public Bitmap getBitmap(String resourcePath) {
+        return getBitmap(resourcePath, BITMAP_TRANSFORM_NONE, BITMAP_SIZE_ORIGINAL, Bitmap.Config.ARGB_8888);
+    }
+
+    /**
+     * Get the bitmap for a resource path, which can be e.g. a res://, www or shared:// path.
+     * Files are decoded only as big as needed for the given size, see {@link #getBitmapFromUri(Uri, int, Bitmap.Config)}.
+     * The bitmap is cached in the {@link BitmapCache}, so it must not be modified or recycled.
+     * @param transform Can be {@link AssetUtil#BITMAP_TRANSFORM_NONE} or {@link AssetUtil#BITMAP_TRANSFORM_CIRCLE}.
+     * @param size Can be {@link AssetUtil#BITMAP_SIZE_ORIGINAL}, {@link AssetUtil#BITMAP_SIZE_LARGE_ICON}
+     * or {@link AssetUtil#BITMAP_SIZE_BIG_PICTURE}.
+     * @param configWithoutAlpha Config to decode images without alpha channel, like JPEG.
+     * @return The bitmap or null if the resource could not be found, or an {@link IOException} occurred.
+     */
+    public Bitmap getBitmap(String resourcePath, int transform, int size, Bitmap.Config configWithoutAlpha) {
         // Check if uri exists
         Uri resourceUri = getUri(resourcePath, AssetUtil.RESOURCE_TYPE_DRAWABLE);
         if (resourceUri == Uri.EMPTY) return null;
 
+        BitmapCache bitmapCache = BitmapCache.getInstance(context);
+        String cacheKey = BitmapCache.getKey(getBitmapSource(resourcePath, resourceUri), transform, size, configWithoutAlpha);
+        Bitmap bitmap = bitmapCache.get(cacheKey);
+
+        if (bitmap != null) return bitmap;
+
+        bitmap = decodeBitmap(resourcePath, resourceUri, size, configWithoutAlpha);
+        if (bitmap == null) return null;
+
+        if (transform == BITMAP_TRANSFORM_CIRCLE) bitmap = getCircleBitmap(bitmap);
+
+        bitmapCache.put(cacheKey, bitmap);
+
+        return bitmap;
+    }
+
+    /**
+     * Identifies the content of a bitmap for the {@link BitmapCache}. Shared files
+     * can be overwritten by the app, so their modification date is added.
+     */
+    private String getBitmapSource(String resourcePath, Uri resourceUri) {
+        if (!resourcePath.startsWith("shared://")) return resourceUri.toString();
+
+        File sharedFile = new File(getSharedDirectory(), resourcePath.replace("shared://", ""));
+        return resourceUri + "@" + sharedFile.lastModified() + "-" + sharedFile.length();
+    }
+
+    /**
+     * Decodes the bitmap for a resource path.
+     * @return The bitmap or null if it could not be decoded.
+     */
+    private Bitmap decodeBitmap(String resourcePath, Uri resourceUri, int size, Bitmap.Config configWithoutAlpha) {
         // Get bitmap from app resources
         if (resourcePath.startsWith("res://")) {
             return getBitmapFromDrawable(getResourceId(resourcePath, AssetUtil.RESOURCE_TYPE_DRAWABLE));
@@ -291,18 +470,111 @@ public final class AssetUtil {
             // Get bitmap from file
         } else {
             try {
-                return getBitmapFromUri(resourceUri);
+                return getBitmapFromUri(resourceUri, size, configWithoutAlpha);
             } catch (IOException exception){
                 Log.e(TAG, "Could not get bitmap" + resourcePath, exception);
                 return null;
             }
         }
     }
+
     /**
      * Convert Uri to Bitmap.
      */
     public Bitmap getBitmapFromUri(Uri uri) throws IOException {
-        return BitmapFactory.decodeStream(context.getContentResolver().openInputStream(uri));
+        return getBitmapFromUri(uri, BITMAP_SIZE_ORIGINAL, Bitmap.Config.ARGB_8888);
+    }
+
+    /**
+     * Convert Uri to Bitmap, which is not bigger than needed for the given size.
+     * The dimensions are read first, so big images like photos can be decoded
+     * with a sample size instead of decoding them fully.
+     * @param size Can be {@link AssetUtil#BITMAP_SIZE_ORIGINAL}, {@link AssetUtil#BITMAP_SIZE_LARGE_ICON}
+     * or {@link AssetUtil#BITMAP_SIZE_BIG_PICTURE}.
+     * @param configWithoutAlpha Config to decode images without alpha channel, like JPEG.
+     * @return null if the image could not be decoded.
+     */
+    public Bitmap getBitmapFromUri(Uri uri, int size, Bitmap.Config configWithoutAlpha) throws IOException {
+        // Read only the dimensions and type of the image
+        BitmapFactory.Options boundsOptions = new BitmapFactory.Options();
+        boundsOptions.inJustDecodeBounds = true;
+        decodeStream(uri, boundsOptions);
+
+        if (boundsOptions.outWidth <= 0 || boundsOptions.outHeight <= 0) {
+            Log.e(TAG, "Could not decode bounds of image, uri=" + uri);
+            return null;
+        }
+
+        float scale = getBitmapScale(boundsOptions.outWidth, boundsOptions.outHeight, size);
+
+        BitmapFactory.Options decodeOptions = new BitmapFactory.Options();
+
+        // JPEG does not support an alpha channel
+        decodeOptions.inPreferredConfig = "image/jpeg".equals(boundsOptions.outMimeType) ?
+            configWithoutAlpha : Bitmap.Config.ARGB_8888;
+
+        // Largest power of 2, which keeps the image at least as big as needed
+        decodeOptions.inSampleSize = 1;
+        while (scale * decodeOptions.inSampleSize * 2 <= 1) decodeOptions.inSampleSize *= 2;
+
+        Bitmap bitmap = decodeStream(uri, decodeOptions);
+        if (bitmap == null || scale >= 1) return bitmap;
+
+        // Scale the rest, which could not be done by the sample size
+        int width = Math.max(1, Math.round(boundsOptions.outWidth * scale));
+        int height = Math.max(1, Math.round(boundsOptions.outHeight * scale));
+        if (width >= bitmap.getWidth() && height >= bitmap.getHeight()) return bitmap;
+
+        Bitmap scaledBitmap = Bitmap.createScaledBitmap(bitmap, width, height, true);
+        if (scaledBitmap != bitmap) bitmap.recycle();
+
+        Log.d(TAG, "Decoded bitmap" +
+            ", uri=" + uri +
+            ", originalSize=" + boundsOptions.outWidth + "x" + boundsOptions.outHeight +
+            ", inSampleSize=" + decodeOptions.inSampleSize +
+            ", size=" + width + "x" + height +
+            ", config=" + decodeOptions.inPreferredConfig);
+
+        return scaledBitmap;
+    }
+
+    /**
+     * Scale to apply on an image for a size. Large icons are cropped by the system,
+     * so they have to cover the icon size. Big pictures are scaled down to fit into
+     * the maximum size.
+     * @return The scale, which is 1 if the image has not to be scaled down.
+     */
+    private float getBitmapScale(int width, int height, int size) {
+        Resources resources = context.getResources();
+
+        if (size == BITMAP_SIZE_LARGE_ICON) {
+            float iconWidth = resources.getDimension(android.R.dimen.notification_large_icon_width);
+            float iconHeight = resources.getDimension(android.R.dimen.notification_large_icon_height);
+            return Math.min(1, Math.max(iconWidth / width, iconHeight / height));
+        }
+
+        if (size == BITMAP_SIZE_BIG_PICTURE) {
+            float density = resources.getDisplayMetrics().density;
+            return Math.min(1, Math.min(
+                BIG_PICTURE_MAX_WIDTH_DP * density / width,
+                BIG_PICTURE_MAX_HEIGHT_DP * density / height));
+        }
+
+        return 1;
+    }
+
+    /**
+     * Decodes an image from a Uri and closes the stream.
+     */
+    private Bitmap decodeStream(Uri uri, BitmapFactory.Options options) throws IOException {
+        InputStream inputStream = context.getContentResolver().openInputStream(uri);
+        if (inputStream == null) throw new FileNotFoundException("Could not open " + uri);
+
+        try {
+            return BitmapFactory.decodeStream(inputStream, null, options);
+        } finally {
+            inputStream.close();
+        }
     }
 
     /**
@@ -333,6 +605,8 @@ public final class AssetUtil {
      * This code has been extracted from the Phonegap Plugin Push plugin:
      * https://github.com/phonegap/phonegap-plugin-push
      *
+     * The given bitmap is not recycled, as it can be shared, e.g. by the resources.
+     *
      * @param bitmap Bitmap to convert.
      * @return Circular bitmap.
      */
@@ -357,8 +631,6 @@ public final class AssetUtil {
         paint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.SRC_IN));
         canvas.drawBitmap(bitmap, rect, rect, paint);
 
-        bitmap.recycle();
-
         return output;
     }
 
@@ -369,7 +641,7 @@ public final class AssetUtil {
      * @param out The output stream.
      */
     public static void copyFile(InputStream in, FileOutputStream out) {
-        byte[] buffer = new byte[1024];
+        byte[] buffer = new byte[(int) COPY_CHUNK_SIZE];
         int read;
 
         try {
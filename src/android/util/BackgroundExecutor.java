@@ -0,0 +1,224 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification.util;
+
+import android.content.BroadcastReceiver;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the work of broadcast receivers on a bounded thread pool, so the main thread
+ * is not blocked by reading the store, decoding bitmaps or posting notifications.
+ */
+public final class BackgroundExecutor {
+
+    private static final String TAG = "BackgroundExecutor";
+
+    // A broadcast receiver has to finish within 10 seconds, otherwise
+    // the system considers it as blocked. Leave some time for the system.
+    public static final long BROADCAST_DEADLINE_MILLIS = 9000;
+
+    private static final int POOL_SIZE = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+    private static final int QUEUE_CAPACITY = 256;
+
+    private static ThreadPoolExecutor executor = null;
+
+    private static Handler mainHandler = null;
+
+    /**
+     * Constructor
+     */
+    private BackgroundExecutor() {}
+
+    /**
+     * Runs the task of a broadcast receiver in the background by {@link BroadcastReceiver#goAsync()}.
+     * The broadcast is finished when the task is done or at the latest after
+     * {@link #BROADCAST_DEADLINE_MILLIS}, the task will continue then without keeping
+     * the broadcast open. Must be called from {@link BroadcastReceiver#onReceive}.
+     * If the queue is full, the task runs on a new thread, never on the calling
+     * main thread.
+     */
+    public static void goAsync(BroadcastReceiver receiver, final String name, final Runnable task) {
+        final BroadcastReceiver.PendingResult pendingResult = receiver.goAsync();
+        final AtomicBoolean finished = new AtomicBoolean(false);
+        final long startTime = SystemClock.uptimeMillis();
+
+        final Runnable deadline = new Runnable() {
+            public void run() {
+                if (!finished.compareAndSet(false, true)) return;
+                Log.w(TAG, "Deadline reached, finishing broadcast while task is still running, name=" + name);
+                pendingResult.finish();
+            }
+        };
+
+        getMainHandler().postDelayed(deadline, BROADCAST_DEADLINE_MILLIS);
+
+        Runnable wrapper = new Runnable() {
+            public void run() {
+                try {
+                    task.run();
+                } catch (Exception exception) {
+                    Log.e(TAG, "Task failed, name=" + name, exception);
+                } finally {
+                    getMainHandler().removeCallbacks(deadline);
+
+                    if (finished.compareAndSet(false, true)) pendingResult.finish();
+
+                    Log.d(TAG, "Task done, name=" + name + ", duration=" + (SystemClock.uptimeMillis() - startTime) + "ms");
+                }
+            }
+        };
+
+        try {
+            getExecutor().execute(wrapper);
+        } catch (RejectedExecutionException exception) {
+            Log.w(TAG, "Queue is full, running task on a new thread, name=" + name);
+            Thread thread = new Thread(wrapper, "LocalNotification-" + name);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            thread.start();
+        }
+    }
+
+    /**
+     * Runs independent tasks in parallel and waits until all are done or the
+     * deadline is reached. Tasks, which are running at the deadline, keep running.
+     * The calling thread runs the tasks itself, which are not yet started by
+     * the pool, so this can also be called from a task of the pool.
+     * Tasks, which are not started by the deadline, are not run anymore.
+     * @param deadline Uptime in milliseconds, see {@link SystemClock#uptimeMillis()}.
+     * @return The tasks, which were not started by the deadline, so the caller can reschedule them.
+     */
+    public static List<Runnable> runParallel(List<Runnable> tasks, long deadline) {
+        List<FutureTask<Void>> futureTasks = new ArrayList<FutureTask<Void>>(tasks.size());
+        List<AtomicBoolean> startedTasks = new ArrayList<AtomicBoolean>(tasks.size());
+
+        for (final Runnable task : tasks) {
+            // Set by the thread, which starts the task, or when the deadline is reached
+            final AtomicBoolean started = new AtomicBoolean(false);
+            startedTasks.add(started);
+
+            FutureTask<Void> futureTask = new FutureTask<Void>(new Runnable() {
+                public void run() {
+                    if (started.compareAndSet(false, true)) task.run();
+                }
+            }, null);
+
+            futureTasks.add(futureTask);
+
+            // The last task is always run by the calling thread
+            if (futureTasks.size() == tasks.size()) break;
+
+            try {
+                getExecutor().execute(futureTask);
+            } catch (RejectedExecutionException exception) {
+                // Will be run by the calling thread
+            }
+        }
+
+        // Run all tasks, which are not started yet, until the deadline. FutureTask.run
+        // does nothing, if the task was already started by the pool.
+        for (FutureTask<Void> futureTask : futureTasks) {
+            if (SystemClock.uptimeMillis() >= deadline) break;
+            futureTask.run();
+        }
+
+        for (FutureTask<Void> futureTask : futureTasks) {
+            try {
+                futureTask.get(Math.max(0, deadline - SystemClock.uptimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException exception) {
+                Log.w(TAG, "Deadline reached, not waiting for remaining tasks");
+                break;
+            } catch (ExecutionException exception) {
+                Log.e(TAG, "Task failed", exception.getCause());
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+
+        List<Runnable> notStartedTasks = new ArrayList<Runnable>();
+
+        for (int index = 0; index < futureTasks.size(); index++) {
+            if (!startedTasks.get(index).compareAndSet(false, true)) continue;
+
+            // Don't keep the task in the queue of the pool
+            futureTasks.get(index).cancel(false);
+            notStartedTasks.add(tasks.get(index));
+        }
+
+        if (!notStartedTasks.isEmpty()) {
+            Log.w(TAG, "Deadline reached, tasks not started, count=" + notStartedTasks.size());
+        }
+
+        return notStartedTasks;
+    }
+
+    /**
+     * Number of threads of the pool. Can be used to split work into tasks.
+     */
+    public static int getPoolSize() {
+        return POOL_SIZE;
+    }
+
+    private static synchronized ThreadPoolExecutor getExecutor() {
+        if (executor != null) return executor;
+
+        executor = new ThreadPoolExecutor(
+            POOL_SIZE, POOL_SIZE, 30, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<Runnable>(QUEUE_CAPACITY),
+            new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger(1);
+
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "LocalNotification-" + count.getAndIncrement());
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                }
+            });
+
+        // Don't keep idle threads alive
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+
+    private static synchronized Handler getMainHandler() {
+        if (mainHandler == null) mainHandler = new Handler(Looper.getMainLooper());
+        return mainHandler;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification.util;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.util.Log;
+import android.util.LruCache;
+
+/**
+ * Process-wide cache of decoded bitmaps, like large icons, attachments and person icons,
+ * so they are not decoded again on every notification build. The size is bounded by
+ * a part of the memory class of the app and the cache is released, when the
+ * system signals memory pressure.
+ * The cached bitmaps are shared and must not be modified or recycled.
+ */
+public final class BitmapCache implements ComponentCallbacks2 {
+
+    private static final String TAG = "BitmapCache";
+
+    // Part of the memory class, which can be used by the cache
+    private static final int MEMORY_CLASS_DIVISOR = 16;
+
+    private static BitmapCache instance = null;
+
+    private final LruCache<String, Bitmap> cache;
+
+    private BitmapCache(int maxSizeBytes) {
+        this.cache = new LruCache<String, Bitmap>(maxSizeBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+        };
+    }
+
+    /**
+     * Gets the shared instance of the cache.
+     */
+    public static synchronized BitmapCache getInstance(Context context) {
+        if (instance != null) return instance;
+
+        Context applicationContext = context.getApplicationContext();
+        ActivityManager activityManager = (ActivityManager) applicationContext.getSystemService(Context.ACTIVITY_SERVICE);
+
+        // Memory class is in megabytes
+        int maxSizeBytes = activityManager.getMemoryClass() * 1024 * 1024 / MEMORY_CLASS_DIVISOR;
+
+        instance = new BitmapCache(maxSizeBytes);
+        applicationContext.registerComponentCallbacks(instance);
+
+        Log.d(TAG, "Created cache, maxSize=" + maxSizeBytes + " bytes");
+
+        return instance;
+    }
+
+    /**
+     * Key of a cached bitmap.
+     * @param source Identifies the source of the bitmap, like the resolved Uri.
+     * @param transform Transformation applied on the decoded bitmap, like
+     * {@link AssetUtil#BITMAP_TRANSFORM_CIRCLE}.
+     * @param size Size the bitmap was decoded for, like {@link AssetUtil#BITMAP_SIZE_LARGE_ICON}.
+     * @param config Config used to decode images without alpha channel.
+     */
+    public static String getKey(String source, int transform, int size, Bitmap.Config config) {
+        return transform + ":" + size + ":" + config + ":" + source;
+    }
+
+    /**
+     * Gets a cached bitmap.
+     * @return null if the bitmap is not cached.
+     */
+    public Bitmap get(String key) {
+        return cache.get(key);
+    }
+
+    /**
+     * Caches a bitmap. Bitmaps bigger than the cache will not be cached.
+     */
+    public void put(String key, Bitmap bitmap) {
+        cache.put(key, bitmap);
+        Log.d(TAG, "Cached bitmap, key=" + key + ", " + getStats());
+    }
+
+    /**
+     * Removes all bitmaps from the cache.
+     */
+    public void clear() {
+        cache.evictAll();
+    }
+
+    /**
+     * Statistics of the cache, like the hit count and hit rate.
+     */
+    public String getStats() {
+        int hitCount = cache.hitCount();
+        int missCount = cache.missCount();
+        int requestCount = hitCount + missCount;
+
+        return "size=" + cache.size() +
+            ", maxSize=" + cache.maxSize() +
+            ", hits=" + hitCount +
+            ", misses=" + missCount +
+            ", hitRate=" + (requestCount == 0 ? 0 : 100 * hitCount / requestCount) + "%";
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        // The app will be one of the first to be killed in the background,
+        // or the system is critically low on memory while the app is running
+        if (level >= TRIM_MEMORY_MODERATE || level == TRIM_MEMORY_RUNNING_CRITICAL) {
+            cache.evictAll();
+
+            // The app is in the background or the system is running low on memory
+        } else if (level >= TRIM_MEMORY_BACKGROUND || level == TRIM_MEMORY_RUNNING_LOW) {
+            cache.trimToSize(cache.size() / 2);
+
+        } else {
+            return;
+        }
+
+        Log.d(TAG, "Trimmed cache, level=" + level + ", " + getStats());
+    }
+
+    @Override
+    public void onLowMemory() {
+        cache.evictAll();
+        Log.d(TAG, "Cleared cache on low memory, " + getStats());
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {}
+}
@@ -0,0 +1,125 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Set of primitive ints, kept sorted in a compact array. Lookups are done by binary search,
+ * so no boxing is needed to check or list the values. This class is not thread safe.
+ */
+public final class IntArraySet {
+
+    private int[] values;
+
+    private int size = 0;
+
+    public IntArraySet() {
+        this(16);
+    }
+
+    public IntArraySet(int initialCapacity) {
+        this.values = new int[Math.max(initialCapacity, 1)];
+    }
+
+    /**
+     * Number of values in this set.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(values, 0, size, value) >= 0;
+    }
+
+    /**
+     * Adds a value to the set.
+     * @return false if the value was already in the set.
+     */
+    public boolean add(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index >= 0) return false;
+
+        // Insertion point of the value
+        index = -(index + 1);
+
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+
+        return true;
+    }
+
+    /**
+     * Removes a value from the set.
+     * @return false if the value was not in the set.
+     */
+    public boolean remove(int value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) return false;
+
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+
+        return true;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Gets the value at the given index. The values are sorted ascending.
+     */
+    public int valueAt(int index) {
+        return values[index];
+    }
+
+    /**
+     * Copy of the values, sorted ascending.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Boxed copy of the values, sorted ascending.
+     */
+    public List<Integer> toList() {
+        List<Integer> list = new ArrayList<Integer>(size);
+
+        for (int index = 0; index < size; index++) {
+            list.add(values[index]);
+        }
+
+        return list;
+    }
+}
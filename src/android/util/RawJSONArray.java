@@ -0,0 +1,65 @@
+/*
+ * Apache 2.0 License
+ *
+ * Copyright (c) Manuel Beck 2025
+ *
+ * This file contains Original Code and/or Modifications of Original Code
+ * as defined in and that are subject to the Apache License
+ * Version 2.0 (the 'License'). You may not use this file except in
+ * compliance with the License. Please obtain a copy of the License at
+ * http://opensource.org/licenses/Apache-2.0/ and read it before using this
+ * file.
+ *
+ * The Original Code and all software distributed under the License are
+ * distributed on an 'AS IS' basis, WITHOUT WARRANTY OF ANY KIND, EITHER
+ * EXPRESS OR IMPLIED, AND APPLE HEREBY DISCLAIMS ALL SUCH WARRANTIES,
+ * INCLUDING WITHOUT LIMITATION, ANY WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE, QUIET ENJOYMENT OR NON-INFRINGEMENT.
+ * Please see the License for the specific language governing rights and
+ * limitations under the License.
+ */
+
+package de.appplant.cordova.plugin.localnotification.util;
+
+import org.json.JSONArray;
+
+/**
+ * JSON array, which is built from already serialized JSON values, so they have not
+ * to be parsed and serialized again, e.g. to pass stored options to the WebView.
+ * Only {@link #toString()} returns the added values, the methods of {@link JSONArray}
+ * to read the values do not know about them, so it must only be passed to a plugin
+ * callback, which serializes it. This class is not thread safe.
+ */
+public final class RawJSONArray extends JSONArray {
+
+    private final StringBuilder json = new StringBuilder("[");
+
+    private int count = 0;
+
+    /**
+     * Adds an already serialized JSON value. The value is not validated.
+     */
+    public RawJSONArray addRaw(String jsonValue) {
+        if (count > 0) json.append(',');
+        json.append(jsonValue);
+        count++;
+        return this;
+    }
+
+    /**
+     * Number of added values.
+     */
+    public int getRawCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return json.toString() + "]";
+    }
+
+    @Override
+    public String toString(int indentSpaces) {
+        return toString();
+    }
+}
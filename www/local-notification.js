@@ -92,11 +92,15 @@ exports.androidUnusedAppRestrictionsStatusCodes = {
 
 // Options only available on Android
 exports._androidSpecificOptions = {
+    // Put the trigger into the alarm queue of the plugin instead of registering an own alarm
+    androidAlarmQueue: false,
     androidAlarmType: exports._androidAlarmTypes.RTC_WAKEUP,
     // Alarm will be allowed to execute even when the system is in low-power idle (a.k.a. doze) modes.
     androidAllowWhileIdle: false,
     // Make this notification automatically dismissed when the user touches it
     androidAutoCancel : true,
+    // Config to decode images without alpha channel like JPEG, can be RGB_565 or ARGB_8888
+    androidBitmapConfig: "RGB_565",
     androidChannelEnableLights: false,
     androidChannelDescription: null,
     androidChannelEnableVibration: false,
@@ -109,6 +113,8 @@ exports._androidSpecificOptions = {
     androidColor: null,
     // Android 7 only: Sets the default notification options
     androidDefaults: 0,
+    // Milliseconds after the trigger date, in which the notification may be delivered
+    androidDeliveryWindow: 0,
     androidGroup: null,
     androidGroupSummary: false,
     androidMessages: null,
@@ -119,6 +125,8 @@ exports._androidSpecificOptions = {
     androidOngoing: false,
     androidOnlyAlertOnce: false,
     androidProgressBar: null,
+    // Per-occurrence content of a repeating notification
+    androidSeries: null,
     // If the Notification should show the when date
     androidShowWhen: true,
     androidSmallIcon: 'res://ic_popup_reminder',
@@ -441,6 +449,36 @@ exports.cancelAll = function (callback, scope) {
     exports._exec('cancelAll', null, callback, scope);
 };
 
+/**
+ * Android only. Cancel all notifications of an Android channel.
+ * @param {string} channelId The id of the channel.
+ * @param {Function} callback The function to be exec as the callback. Receives the number of canceled notifications.
+ * @param {Object} scope The callback function's scope.
+ */
+exports.cancelByChannel = function (channelId, callback, scope) {
+    exports._exec('cancelByChannel', channelId, callback, scope);
+};
+
+/**
+ * Android only. Cancel all notifications of a group.
+ * @param {string} group The group, which was set by androidGroup.
+ * @param {Function} callback The function to be exec as the callback. Receives the number of canceled notifications.
+ * @param {Object} scope The callback function's scope.
+ */
+exports.cancelByGroup = function (group, callback, scope) {
+    exports._exec('cancelByGroup', group, callback, scope);
+};
+
+/**
+ * Android only. Clear all triggered notifications of a group.
+ * @param {string} group The group, which was set by androidGroup.
+ * @param {Function} callback The function to be exec as the callback. Receives the number of cleared notifications.
+ * @param {Object} scope The callback function's scope.
+ */
+exports.clearByGroup = function (group, callback, scope) {
+    exports._exec('clearByGroup', group, callback, scope);
+};
+
 /**
  * Check if a notification is present.
  * @param {number} id The ID of the notification.
@@ -582,6 +620,56 @@ exports.getTriggered = function (callback, scope) {
     this._exec('notifications', 2, callback, scope);
 };
 
+/**
+ * Android only. List of the notifications, which trigger next in a time range,
+ * ordered by their next trigger date.
+ * @param {Date|number} from Start of the range, inclusive.
+ * @param {Date|number} to End of the range, inclusive.
+ * @param {number} limit Maximum number of notifications, 0 for no limit.
+ * @param {Function} callback The function to be exec as the callback.
+ * @param {Object} scope The callback function's scope.
+ */
+exports.getScheduledBetween = function (from, to, limit, callback, scope) {
+    this._exec('getScheduledBetween', [
+        exports._dateToNumber(from),
+        exports._dateToNumber(to),
+        limit || 0
+    ], callback, scope);
+};
+
+/**
+ * Android only. List of the next notifications, which will trigger,
+ * ordered by their next trigger date.
+ * @param {number} count Maximum number of notifications.
+ * @param {Function} callback The function to be exec as the callback.
+ * @param {Object} scope The callback function's scope.
+ */
+exports.getNextDue = function (count, callback, scope) {
+    this._exec('getNextDue', count, callback, scope);
+};
+
+/**
+ * Android only. The next trigger dates of a notification in milliseconds,
+ * starting with the current one. Repeating triggers are calculated natively.
+ * @param {number} id The id of the notification.
+ * @param {number} count Maximum number of trigger dates.
+ * @param {Function} callback The function to be exec as the callback.
+ * @param {Object} scope The callback function's scope.
+ */
+exports.getOccurrences = function (id, count, callback, scope) {
+    this._exec('getOccurrences', [id, count || 1], callback, scope);
+};
+
+/**
+ * Android only. List of all notifications of a group.
+ * @param {string} group The group, which was set by androidGroup.
+ * @param {Function} callback The function to be exec as the callback.
+ * @param {Object} scope The callback function's scope.
+ */
+exports.getByGroup = function (group, callback, scope) {
+    this._exec('getByGroup', group, callback, scope);
+};
+
 /**
  * Adds an action group with actions.
  * @param {string} actionsGroupId
@@ -951,6 +1039,20 @@ exports._prepareTrigger = function (options) {
         if (trigger.before) trigger.before = exports._dateToNumber(trigger.before);
         if (trigger.after) trigger.after = exports._dateToNumber(trigger.after);
 
+        // Convert dates and date ranges of trigger.except to numbers
+        if (Array.isArray(trigger.except)) {
+            trigger.except = trigger.except.map(function (except) {
+                if (except && except.from) {
+                    return {
+                        from: exports._dateToNumber(except.from),
+                        to: exports._dateToNumber(except.to || except.from)
+                    };
+                }
+
+                return exports._dateToNumber(except);
+            });
+        }
+
         // On iOS notifications will be ignored if the trigger time is in the past
         // Correct trigger.at if trigger time is maximum 5 seconds in the past
         if (trigger.at) {